@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+#
+# AppCDS アーカイブの作成(トレーニング実行)
+#
+#   scripts/cds-training.sh [--aot] <実行可能jar> <出力ディレクトリ>
+#
+# 実行可能jarを展開し、ModelMapperのウォームアップ(model-mapper.warm-up=true)を有効にして起動し、
+# Bean の作成が終わった時点(spring.context.exit=onRefresh)で終了する。終了時にロード済みのクラスをアーカイブする。
+# 出力ディレクトリには以下を作成する。
+#   application.jar  BOOT-INF/classes をまとめたjar(CDS はディレクトリから読み込んだクラスをアーカイブしない)
+#   lib/             依存ライブラリ
+#   java.args        クラスパスとメインクラス(トレーニング時と実行時でクラスパスを一致させるため、起動時はこのファイルを使う)
+#   application.jsa  CDS アーカイブ
+#
+# 起動方法:
+#   java -XX:SharedArchiveFile=<出力ディレクトリ>/application.jsa @<出力ディレクトリ>/java.args
+#
+# --aot: Spring AOT 処理済みのjar(mvn -Paot package)の場合に指定する。起動時にも -Dspring.aot.enabled=true を指定すること。
+#
+set -euo pipefail
+
+AOT_OPTS=()
+if [[ "${1:-}" == "--aot" ]]; then
+  AOT_OPTS=(-Dspring.aot.enabled=true)
+  shift
+fi
+JAR=$(realpath "${1:?実行可能jarを指定してください}")
+OUT=$(realpath -m "${2:?出力ディレクトリを指定してください}")
+JAVA=${JAVA:-java}
+
+rm -rf "$OUT"
+mkdir -p "$OUT/exploded" "$OUT/lib"
+(cd "$OUT/exploded" && jar -xf "$JAR")
+
+MAIN=$(sed -n 's/^Start-Class: *//p' "$OUT/exploded/META-INF/MANIFEST.MF" | tr -d '\r')
+jar --create --file "$OUT/application.jar" -C "$OUT/exploded/BOOT-INF/classes" .
+
+# BOOT-INF/classpath.idx の順序でクラスパスを組み立てる
+CP="$OUT/application.jar"
+while read -r line; do
+  lib=${line#- \"}
+  lib=${lib%\"}
+  mv "$OUT/exploded/$lib" "$OUT/lib/"
+  CP="$CP:$OUT/lib/$(basename "$lib")"
+done < "$OUT/exploded/BOOT-INF/classpath.idx"
+rm -rf "$OUT/exploded"
+
+printf -- '-cp "%s"\n%s\n' "$CP" "$MAIN" > "$OUT/java.args"
+
+"$JAVA" -XX:ArchiveClassesAtExit="$OUT/application.jsa" \
+  -Dspring.context.exit=onRefresh \
+  -Dmodel-mapper.warm-up=true \
+  ${AOT_OPTS[@]+"${AOT_OPTS[@]}"} \
+  @"$OUT/java.args"
+
+echo "CDS archive: $OUT/application.jsa"
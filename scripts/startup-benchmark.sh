@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+#
+# 起動時間の比較(通常のJVM / CDS / Spring AOT / Spring AOT + CDS)
+#
+#   scripts/startup-benchmark.sh [回数(既定: 10)]
+#
+# 同じマシン・同じJDKで、通常のjarと Spring AOT 処理済みのjar(-Paot)をビルドし、
+# それぞれ CDS アーカイブを作成(scripts/cds-training.sh)してから、各モードを交互に起動する。
+# jar の形式による差が出ないよう、全てのモードを cds-training.sh が展開した application.jar + lib/ から起動する
+# (default・aot は同じクラスパスで CDS アーカイブを指定しない)。
+# プロセスの開始から終了までの時間(wall)と、Spring Boot が出力する起動時間(Started ... in X seconds)を集計する。
+# CPU の周波数制御などの影響を減らすため、計測中は他の負荷をかけないこと。
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-10}
+JAVA=${JAVA:-java}
+WORK=target/startup-benchmark
+TMP=$(mktemp -d)
+trap 'rm -rf "$TMP"' EXIT
+
+# ビルド(clean で target を削除するため、1つ目のjarは一時ディレクトリに退避する)
+./mvnw -B -q clean package -DskipTests -Paot
+cp target/*.jar "$TMP/aot.jar"
+./mvnw -B -q clean package -DskipTests
+mkdir -p "$WORK"
+cp target/*.jar "$WORK/default.jar"
+mv "$TMP/aot.jar" "$WORK/aot.jar"
+
+JAVA="$JAVA" scripts/cds-training.sh "$WORK/default.jar" "$WORK/cds" > "$WORK/cds-training.log" 2>&1
+JAVA="$JAVA" scripts/cds-training.sh --aot "$WORK/aot.jar" "$WORK/aot-cds" > "$WORK/aot-cds-training.log" 2>&1
+
+MODES=(default cds aot aot-cds)
+
+run() {
+  case "$1" in
+    default) "$JAVA" @"$WORK/cds/java.args" ;;
+    cds)     "$JAVA" -XX:SharedArchiveFile="$WORK/cds/application.jsa" @"$WORK/cds/java.args" ;;
+    aot)     "$JAVA" -Dspring.aot.enabled=true @"$WORK/aot-cds/java.args" ;;
+    aot-cds) "$JAVA" -XX:SharedArchiveFile="$WORK/aot-cds/application.jsa" -Dspring.aot.enabled=true @"$WORK/aot-cds/java.args" ;;
+  esac
+}
+
+# 1回目はOSのファイルキャッシュの影響を受けるため集計しない
+for mode in "${MODES[@]}"; do
+  run "$mode" > /dev/null 2>&1
+  : > "$WORK/$mode.txt"
+done
+
+for ((i = 1; i <= RUNS; i++)); do
+  for mode in "${MODES[@]}"; do
+    start=$(date +%s%N)
+    output=$(run "$mode" 2>&1)
+    end=$(date +%s%N)
+    started=$(grep -o 'Started [^ ]* in [0-9.]* seconds' <<< "$output" | awk '{print $4 * 1000}')
+    echo "$(( (end - start) / 1000000 )) ${started:-0}" >> "$WORK/$mode.txt"
+  done
+done
+
+echo "$("$JAVA" -version 2>&1 | head -1), runs=$RUNS"
+printf '%-8s %12s %12s %14s\n' mode "wall(avg)" "wall(min)" "started(avg)"
+for mode in "${MODES[@]}"; do
+  awk -v mode="$mode" '
+    { wall += $1; started += $2; if (min == "" || $1 < min) min = $1 }
+    END { printf "%-8s %9.0f ms %9.0f ms %11.0f ms\n", mode, wall / NR, min, started / NR }
+  ' "$WORK/$mode.txt"
+done
@@ -0,0 +1,293 @@
+package com.example.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 列指向のマッピング結果
+ * <p>
+ * 行ごとの送信先オブジェクトを作成せず、列ごとにプリミティブ型の配列に格納する。
+ * 列の種類(ColumnType)ごとの格納方法は以下の通り。null は列ごとのビットマップ(ビットが立っている行が null)で表す。
+ * <ul>
+ *     <li>INT / LONG / DOUBLE: int[] / long[] / double[] (null の行は 0)</li>
+ *     <li>BOOLEAN: ビットマップ(long[])</li>
+ *     <li>STRING: 辞書のインデックスの int[] と辞書(出現順、重複なし)。null の行のインデックスは -1</li>
+ *     <li>OBJECT: Object[]</li>
+ * </ul>
+ * 配列を返すメソッドは複製せずに内部の配列を返すため、変更しないこと。
+ */
+public final class ColumnBatch {
+
+    private final ColumnSchema schema;
+    private final int rowCount;
+    private final Object[] data;
+    private final List<List<String>> dictionaries;
+    private final long[][] nulls;
+
+    private ColumnBatch(ColumnSchema schema, int rowCount, Object[] data, List<List<String>> dictionaries,
+                        long[][] nulls) {
+        this.schema = schema;
+        this.rowCount = rowCount;
+        this.data = data;
+        this.dictionaries = dictionaries;
+        this.nulls = nulls;
+    }
+
+    /**
+     * @return 列の定義
+     */
+    public ColumnSchema schema() {
+        return schema;
+    }
+
+    /**
+     * @return 行数
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param name プロパティ名
+     * @return 列の位置
+     * @throws IllegalArgumentException 列が無い場合
+     */
+    public int columnIndex(String name) {
+        var index = schema.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("No such column. (" + name + ")");
+        }
+        return index;
+    }
+
+    /**
+     * @param column 列の位置
+     * @param row    行の位置
+     * @return null の場合 true
+     */
+    public boolean isNull(int column, int row) {
+        Objects.checkIndex(row, rowCount);
+        return isSet(nulls[column], row);
+    }
+
+    public int getInt(int column, int row) {
+        Objects.checkIndex(row, rowCount);
+        return ints(column)[row];
+    }
+
+    public long getLong(int column, int row) {
+        Objects.checkIndex(row, rowCount);
+        return longs(column)[row];
+    }
+
+    public double getDouble(int column, int row) {
+        Objects.checkIndex(row, rowCount);
+        return doubles(column)[row];
+    }
+
+    public boolean getBoolean(int column, int row) {
+        Objects.checkIndex(row, rowCount);
+        return isSet(booleans(column), row);
+    }
+
+    /**
+     * @return 値(null の場合は null)
+     */
+    public String getString(int column, int row) {
+        Objects.checkIndex(row, rowCount);
+        var code = dictionaryCodes(column)[row];
+        return code < 0 ? null : dictionaries.get(column).get(code);
+    }
+
+    /**
+     * 列の種類に関係なく値を取得する。INT の列は Integer、DOUBLE の列は Double で返す(元のプロパティの型には戻さない)。
+     *
+     * @return 値(null の場合は null)
+     */
+    public Object get(int column, int row) {
+        if (isNull(column, row)) {
+            return null;
+        }
+        return switch (type(column)) {
+            case INT -> getInt(column, row);
+            case LONG -> getLong(column, row);
+            case DOUBLE -> getDouble(column, row);
+            case BOOLEAN -> getBoolean(column, row);
+            case STRING -> getString(column, row);
+            case OBJECT -> objects(column)[row];
+        };
+    }
+
+    public int[] ints(int column) {
+        return (int[]) data(column, ColumnType.INT);
+    }
+
+    public long[] longs(int column) {
+        return (long[]) data(column, ColumnType.LONG);
+    }
+
+    public double[] doubles(int column) {
+        return (double[]) data(column, ColumnType.DOUBLE);
+    }
+
+    /**
+     * @return 値のビットマップ(行 r の値は (bits[r >>> 6] &amp; (1L &lt;&lt; r)) != 0)
+     */
+    public long[] booleans(int column) {
+        return (long[]) data(column, ColumnType.BOOLEAN);
+    }
+
+    /**
+     * @return 辞書のインデックス(null の行は -1)
+     */
+    public int[] dictionaryCodes(int column) {
+        return (int[]) data(column, ColumnType.STRING);
+    }
+
+    /**
+     * @return 辞書(出現順、変更不可)
+     */
+    public List<String> dictionary(int column) {
+        data(column, ColumnType.STRING);
+        return dictionaries.get(column);
+    }
+
+    public Object[] objects(int column) {
+        return (Object[]) data(column, ColumnType.OBJECT);
+    }
+
+    /**
+     * @return null のビットマップ(行 r が null の場合 (bits[r >>> 6] &amp; (1L &lt;&lt; r)) != 0)
+     */
+    public long[] nullBitmap(int column) {
+        return nulls[column];
+    }
+
+    private ColumnType type(int column) {
+        return schema.columns().get(column).columnType();
+    }
+
+    private Object data(int column, ColumnType expected) {
+        var actual = type(column);
+        if (actual != expected) {
+            throw new IllegalArgumentException("Column " + schema.columns().get(column).name()
+                    + " is " + actual + ", not " + expected + ".");
+        }
+        return data[column];
+    }
+
+    private static boolean isSet(long[] bits, int row) {
+        return (bits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * 行数を指定して列の配列を確保し、値を書き込む。
+     */
+    static final class Builder {
+
+        private final ColumnSchema schema;
+        private final int rowCount;
+        private final ColumnType[] types;
+        private final Object[] data;
+        private final long[][] nulls;
+        private final List<Map<String, Integer>> codes;
+        private final List<List<String>> dictionaries;
+
+        Builder(ColumnSchema schema, int rowCount) {
+            var columns = schema.columns();
+            this.schema = schema;
+            this.rowCount = rowCount;
+            this.types = new ColumnType[columns.size()];
+            this.data = new Object[columns.size()];
+            this.nulls = new long[columns.size()][];
+            this.codes = new ArrayList<>(columns.size());
+            this.dictionaries = new ArrayList<>(columns.size());
+            var bitmapLength = (rowCount + 63) >>> 6;
+            for (int c = 0; c < columns.size(); c++) {
+                types[c] = columns.get(c).columnType();
+                data[c] = switch (types[c]) {
+                    case INT, STRING -> new int[rowCount];
+                    case LONG -> new long[rowCount];
+                    case DOUBLE -> new double[rowCount];
+                    case BOOLEAN -> new long[bitmapLength];
+                    case OBJECT -> new Object[rowCount];
+                };
+                nulls[c] = new long[bitmapLength];
+                var isString = types[c] == ColumnType.STRING;
+                codes.add(isString ? new HashMap<>() : null);
+                dictionaries.add(isString ? new ArrayList<>() : null);
+            }
+        }
+
+        int columnCount() {
+            return types.length;
+        }
+
+        void setInt(int column, int row, int value) {
+            ((int[]) data[column])[row] = value;
+        }
+
+        void setLong(int column, int row, long value) {
+            ((long[]) data[column])[row] = value;
+        }
+
+        void setDouble(int column, int row, double value) {
+            ((double[]) data[column])[row] = value;
+        }
+
+        void setBoolean(int column, int row, boolean value) {
+            if (value) {
+                ((long[]) data[column])[row >>> 6] |= 1L << row;
+            }
+        }
+
+        void setNull(int column, int row) {
+            nulls[column][row >>> 6] |= 1L << row;
+            if (types[column] == ColumnType.STRING) {
+                ((int[]) data[column])[row] = -1;
+            }
+        }
+
+        /**
+         * 列の種類に合わせて値を書き込む。
+         *
+         * @param value 値(列のプロパティの型であること)
+         */
+        void set(int column, int row, Object value) {
+            if (value == null) {
+                setNull(column, row);
+                return;
+            }
+            switch (types[column]) {
+                case INT -> setInt(column, row, ((Number) value).intValue());
+                case LONG -> setLong(column, row, (Long) value);
+                case DOUBLE -> setDouble(column, row, ((Number) value).doubleValue());
+                case BOOLEAN -> setBoolean(column, row, (Boolean) value);
+                case STRING -> ((int[]) data[column])[row] = encode(column, (String) value);
+                case OBJECT -> ((Object[]) data[column])[row] = value;
+            }
+        }
+
+        private int encode(int column, String value) {
+            var code = codes.get(column).get(value);
+            if (code == null) {
+                var dictionary = dictionaries.get(column);
+                code = dictionary.size();
+                codes.get(column).put(value, code);
+                dictionary.add(value);
+            }
+            return code;
+        }
+
+        ColumnBatch build() {
+            var frozen = dictionaries.stream()
+                    .map(d -> d == null ? null : List.copyOf(d))
+                    .toList();
+            return new ColumnBatch(schema, rowCount, Arrays.copyOf(data, data.length), frozen, nulls);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.config;
+
+import org.modelmapper.ModelMapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+
+/**
+ * ソースを ColumnBatch の1行として書き込むための計画
+ * <p>
+ * PropertyPlan の getter を送信先の列に対応付け、送信先オブジェクトを作成せずに列の配列に書き込む。
+ * ソースと送信先が同じプリミティブ型のプロパティは、ボクシングせずにプリミティブ型のまま書き込む。
+ * 送信先の値が設定されない列(対応するソースのプロパティが無い、null をスキップする設定など)には、送信先の型の初期値を書き込む。
+ * PropertyPlan が直接代入できない場合は、行ごとに ModelMapper#map でマッピングした結果を列に書き込む。
+ */
+final class ColumnPlan {
+
+    private static final int OBJECT = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int DOUBLE = 3;
+    private static final int BOOLEAN = 4;
+
+    private final PropertyPlan plan;
+    private final boolean skipNull;
+    private final PropertyPlan.Step[] steps;
+    private final int[] kinds;
+    private final int[] columns;
+    private final MethodHandle[] getters;
+    private final MethodHandle[] columnGetters;
+    private final boolean[] primitiveDestinations;
+    private final Object[] defaults;
+    private final int[] unmappedColumns;
+
+    private ColumnPlan(PropertyPlan plan, boolean skipNull, PropertyPlan.Step[] steps, int[] kinds, int[] columns,
+                       MethodHandle[] getters, MethodHandle[] columnGetters, boolean[] primitiveDestinations,
+                       Object[] defaults, int[] unmappedColumns) {
+        this.plan = plan;
+        this.skipNull = skipNull;
+        this.steps = steps;
+        this.kinds = kinds;
+        this.columns = columns;
+        this.getters = getters;
+        this.columnGetters = columnGetters;
+        this.primitiveDestinations = primitiveDestinations;
+        this.defaults = defaults;
+        this.unmappedColumns = unmappedColumns;
+    }
+
+    /**
+     * マッピング計画から列への書き込み計画を組み立てる。
+     *
+     * @param mapper ModelMapper
+     * @param plan   ソースの型 -> 送信先の型のマッピング計画
+     * @param schema 送信先の型の列の定義
+     * @return 書き込み計画
+     */
+    static ColumnPlan compile(ModelMapper mapper, PropertyPlan plan, ColumnSchema schema) {
+        var schemaColumns = schema.columns();
+        var columnGetters = new MethodHandle[schemaColumns.size()];
+        for (int c = 0; c < columnGetters.length; c++) {
+            columnGetters[c] = schema.getter(schemaColumns.get(c));
+        }
+        var fallback = new ColumnPlan(plan, false, null, null, null, null, columnGetters, null, null, null);
+        if (!plan.isDirect()) {
+            return fallback;
+        }
+
+        var steps = new ArrayList<PropertyPlan.Step>();
+        var columns = new ArrayList<Integer>();
+        for (var step : plan.steps()) {
+            var column = schema.indexOf(step.destinationName());
+            if (column < 0) {
+                // getter の無い(書き込みのみの)プロパティは列にならない
+                continue;
+            }
+            if (schemaColumns.get(column).javaType() != step.destinationType()) {
+                return fallback;
+            }
+            steps.add(step);
+            columns.add(column);
+        }
+
+        var destination = plan.newDestination();
+        var defaults = new Object[schemaColumns.size()];
+        var mapped = new boolean[schemaColumns.size()];
+        for (int c = 0; c < defaults.length; c++) {
+            defaults[c] = PropertyPlan.invoke(columnGetters[c], destination);
+        }
+
+        var size = steps.size();
+        var kinds = new int[size];
+        var handles = new MethodHandle[size];
+        var primitiveDestinations = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            var step = steps.get(i);
+            var column = schemaColumns.get(columns.get(i));
+            mapped[columns.get(i)] = true;
+            kinds[i] = OBJECT;
+            handles[i] = step.getter();
+            primitiveDestinations[i] = step.destinationType().isPrimitive();
+            if (!step.needsConversion() && step.sourceType().isPrimitive()) {
+                var primitive = primitiveGetter(step, column.columnType());
+                if (primitive != null) {
+                    kinds[i] = kindOf(column.columnType());
+                    handles[i] = primitive;
+                }
+            }
+        }
+
+        var unmapped = new ArrayList<Integer>();
+        for (int c = 0; c < mapped.length; c++) {
+            if (!mapped[c]) {
+                unmapped.add(c);
+            }
+        }
+        return new ColumnPlan(plan, mapper.getConfiguration().isSkipNullEnabled(),
+                steps.toArray(PropertyPlan.Step[]::new), kinds,
+                columns.stream().mapToInt(Integer::intValue).toArray(), handles, columnGetters,
+                primitiveDestinations, defaults, unmapped.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * ソースを1行として書き込む。
+     *
+     * @param mapper  ModelMapper
+     * @param source  ソース(null 以外)
+     * @param builder 書き込み先
+     * @param row     行の位置
+     */
+    void write(ModelMapper mapper, Object source, ColumnBatch.Builder builder, int row) {
+        if (steps == null) {
+            var destination = plan.map(mapper, source);
+            for (int c = 0; c < columnGetters.length; c++) {
+                builder.set(c, row, PropertyPlan.invoke(columnGetters[c], destination));
+            }
+            return;
+        }
+        for (int i = 0; i < steps.length; i++) {
+            var column = columns[i];
+            try {
+                switch (kinds[i]) {
+                    case INT -> builder.setInt(column, row, (int) getters[i].invokeExact(source));
+                    case LONG -> builder.setLong(column, row, (long) getters[i].invokeExact(source));
+                    case DOUBLE -> builder.setDouble(column, row, (double) getters[i].invokeExact(source));
+                    case BOOLEAN -> builder.setBoolean(column, row, (boolean) getters[i].invokeExact(source));
+                    default -> {
+                        var value = PropertyPlan.convert(mapper, steps[i], PropertyPlan.read(steps[i], source));
+                        if (value == null && (skipNull || primitiveDestinations[i])) {
+                            // 送信先オブジェクトの場合と同じく、初期値のままとする
+                            value = defaults[column];
+                        }
+                        builder.set(column, row, value);
+                    }
+                }
+            } catch (Throwable e) {
+                throw PropertyPlan.rethrow("Failed to get " + steps[i].getterMethod(), e);
+            }
+        }
+        for (var column : unmappedColumns) {
+            builder.set(column, row, defaults[column]);
+        }
+    }
+
+    /**
+     * 元のTypeMapが変更されていないことを確認する(PropertyPlan#verify)。
+     */
+    void verify() {
+        plan.verify();
+    }
+
+    /**
+     * null のソースを書き込む(全ての列を null とする)。
+     */
+    static void writeNull(ColumnBatch.Builder builder, int row) {
+        for (int c = 0; c < builder.columnCount(); c++) {
+            builder.setNull(c, row);
+        }
+    }
+
+    private static MethodHandle primitiveGetter(PropertyPlan.Step step, ColumnType columnType) {
+        var returnType = switch (columnType) {
+            case INT -> int.class;
+            case LONG -> long.class;
+            case DOUBLE -> double.class;
+            case BOOLEAN -> boolean.class;
+            default -> null;
+        };
+        if (returnType == null) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().unreflect(step.getterMethod())
+                    .asType(MethodType.methodType(returnType, Object.class));
+        } catch (IllegalAccessException | IllegalArgumentException | ClassCastException e) {
+            return null;
+        }
+    }
+
+    private static int kindOf(ColumnType columnType) {
+        return switch (columnType) {
+            case INT -> INT;
+            case LONG -> LONG;
+            case DOUBLE -> DOUBLE;
+            case BOOLEAN -> BOOLEAN;
+            default -> OBJECT;
+        };
+    }
+}
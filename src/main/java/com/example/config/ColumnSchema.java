@@ -0,0 +1,137 @@
+package com.example.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 送信先のクラスから作成した列の定義
+ * <p>
+ * 送信先のクラス(親クラスを含む)のフィールドのうち、publicなgetterのあるものを宣言順(親クラスが先)に列とする。
+ * Record の場合はコンポーネントを列とする。
+ *
+ * @param type    送信先のクラス
+ * @param columns 列
+ */
+public record ColumnSchema(Class<?> type, List<Column> columns) {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<ColumnSchema> CACHE = new ClassValue<>() {
+        @Override
+        protected ColumnSchema computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    /**
+     * 列の定義
+     *
+     * @param name       プロパティ名
+     * @param javaType   プロパティの型
+     * @param columnType 列の種類
+     */
+    public record Column(String name, Class<?> javaType, ColumnType columnType) {
+
+    }
+
+    public ColumnSchema {
+        columns = List.copyOf(columns);
+    }
+
+    /**
+     * @param type 送信先のクラス
+     * @return 列の定義
+     */
+    public static ColumnSchema of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * @param name プロパティ名
+     * @return 列の位置(無い場合は -1)
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param column 列
+     * @return 送信先のgetter((Object)Object に変換済み)
+     */
+    MethodHandle getter(Column column) {
+        var lookup = MethodHandles.publicLookup();
+        if (type.isRecord()) {
+            try {
+                return unreflect(lookup, type.getMethod(column.name()));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return findGetter(lookup, type, column.name(), column.javaType());
+    }
+
+    private static ColumnSchema create(Class<?> type) {
+        var lookup = MethodHandles.publicLookup();
+        var columns = new ArrayList<Column>();
+        if (type.isRecord()) {
+            for (var component : type.getRecordComponents()) {
+                if (unreflect(lookup, component.getAccessor()) != null) {
+                    columns.add(new Column(component.getName(), component.getType(),
+                            ColumnType.of(component.getType())));
+                }
+            }
+            return new ColumnSchema(type, columns);
+        }
+
+        var hierarchy = new ArrayDeque<Class<?>>();
+        for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.push(current);
+        }
+        for (var declaring : hierarchy) {
+            for (var field : declaring.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                if (findGetter(lookup, type, field.getName(), field.getType()) != null) {
+                    columns.add(new Column(field.getName(), field.getType(), ColumnType.of(field.getType())));
+                }
+            }
+        }
+        return new ColumnSchema(type, columns);
+    }
+
+    private static MethodHandle findGetter(MethodHandles.Lookup lookup, Class<?> type, String name, Class<?> fieldType) {
+        var capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        var prefixes = fieldType == boolean.class ? List.of("is", "get") : List.of("get");
+        for (var prefix : prefixes) {
+            try {
+                var method = type.getMethod(prefix + capitalized);
+                if (method.getReturnType() == fieldType) {
+                    return unreflect(lookup, method);
+                }
+            } catch (NoSuchMethodException e) {
+                // 次の候補
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method) {
+        try {
+            return lookup.unreflect(method).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+}
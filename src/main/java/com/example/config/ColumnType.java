@@ -0,0 +1,57 @@
+package com.example.config;
+
+import java.util.Map;
+
+/**
+ * 列指向のマッピング結果(ColumnBatch)の列の種類
+ */
+public enum ColumnType {
+
+    /**
+     * int[] (int, short, byte とそのラッパー型)
+     */
+    INT,
+
+    /**
+     * long[] (long, Long)
+     */
+    LONG,
+
+    /**
+     * double[] (double, float とそのラッパー型)
+     */
+    DOUBLE,
+
+    /**
+     * ビットマップ (boolean, Boolean)
+     */
+    BOOLEAN,
+
+    /**
+     * 辞書のインデックスの int[] と辞書 (String)
+     */
+    STRING,
+
+    /**
+     * Object[] (上記以外の型)
+     */
+    OBJECT;
+
+    private static final Map<Class<?>, ColumnType> TYPES = Map.ofEntries(
+            Map.entry(int.class, INT), Map.entry(Integer.class, INT),
+            Map.entry(short.class, INT), Map.entry(Short.class, INT),
+            Map.entry(byte.class, INT), Map.entry(Byte.class, INT),
+            Map.entry(long.class, LONG), Map.entry(Long.class, LONG),
+            Map.entry(double.class, DOUBLE), Map.entry(Double.class, DOUBLE),
+            Map.entry(float.class, DOUBLE), Map.entry(Float.class, DOUBLE),
+            Map.entry(boolean.class, BOOLEAN), Map.entry(Boolean.class, BOOLEAN),
+            Map.entry(String.class, STRING));
+
+    /**
+     * @param type プロパティの型
+     * @return 列の種類
+     */
+    static ColumnType of(Class<?> type) {
+        return TYPES.getOrDefault(type, OBJECT);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.config;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * メモリマップしたファイルを区切り文字形式(RFC 4180)として解析する
+ * <p>
+ * ファイルを一定サイズの領域ごとにメモリマップし、バイト列から直接フィールドの文字列を作成する
+ * (行単位の String は作成しない)。領域の末尾で途切れたレコードは、次の領域をそのレコードの先頭からマップして読み直す。
+ * <ul>
+ *     <li>ダブルクォートで囲んだフィールドには、区切り文字・改行・"" (ダブルクォート)を含められる</li>
+ *     <li>改行は LF, CRLF のどちらでもよい。空行は読み飛ばす</li>
+ * </ul>
+ */
+final class DelimitedFileParser {
+
+    static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private final Path path;
+    private final byte delimiter;
+    private final Charset charset;
+    private final long windowSize;
+
+    private final List<String> fields = new ArrayList<>();
+    private byte[] scratch = new byte[256];
+
+    DelimitedFileParser(Path path, char delimiter, Charset charset, long windowSize) {
+        this.path = path;
+        this.delimiter = (byte) delimiter;
+        this.charset = charset;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * ファイルの先頭から全てのレコードを解析する。
+     *
+     * @param sink レコード(フィールドの配列)を受け取る
+     * @throws IOException 読み込みに失敗した場合、形式が不正な場合
+     */
+    void parse(Consumer<String[]> sink) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            var position = 0L;
+            while (position < size) {
+                var length = Math.min(windowSize, size - position);
+                var buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                var last = position + length == size;
+                var consumed = parseWindow(buffer, (int) length, last, position, sink);
+                if (consumed == 0) {
+                    throw new IOException("Record too large at offset " + position + ". (" + path + ")");
+                }
+                position += consumed;
+            }
+        }
+    }
+
+    /**
+     * マップした領域を解析する。
+     *
+     * @return 解析が完了したバイト数(途切れたレコードの先頭まで)
+     */
+    private int parseWindow(MappedByteBuffer buffer, int limit, boolean last, long offset, Consumer<String[]> sink)
+            throws IOException {
+        var pos = 0;
+        while (pos < limit) {
+            var end = parseRecord(buffer, pos, limit, last, offset);
+            if (end < 0) {
+                return pos;
+            }
+            if (fields.size() > 1 || !fields.get(0).isEmpty()) {
+                sink.accept(fields.toArray(String[]::new));
+            }
+            pos = end;
+        }
+        return pos;
+    }
+
+    /**
+     * pos から始まる1レコードを fields に読み込む。
+     *
+     * @return 次のレコードの位置(領域の末尾でレコードが途切れている場合は -1)
+     */
+    private int parseRecord(MappedByteBuffer buffer, int pos, int limit, boolean last, long offset) throws IOException {
+        fields.clear();
+        var p = pos;
+        while (true) {
+            if (p >= limit) {
+                // 区切り文字で終わっている
+                if (!last) {
+                    return -1;
+                }
+                fields.add("");
+                return p;
+            }
+            if (buffer.get(p) == QUOTE) {
+                p = parseQuoted(buffer, p + 1, limit, last, offset);
+                if (p < 0) {
+                    return -1;
+                }
+                if (p >= limit) {
+                    return p;
+                }
+                var next = buffer.get(p);
+                if (next == delimiter) {
+                    p++;
+                    continue;
+                }
+                if (next == CR) {
+                    if (p + 1 >= limit) {
+                        return last ? p + 1 : -1;
+                    }
+                    next = buffer.get(++p);
+                }
+                if (next == LF) {
+                    return p + 1;
+                }
+                throw new IOException("Unexpected character after quoted field at offset " + (offset + p) + ". (" + path + ")");
+            }
+
+            var start = p;
+            byte b = 0;
+            while (p < limit && (b = buffer.get(p)) != delimiter && b != LF) {
+                p++;
+            }
+            if (p >= limit && !last) {
+                return -1;
+            }
+            var atEndOfRecord = p >= limit || b == LF;
+            var end = atEndOfRecord && p > start && buffer.get(p - 1) == CR ? p - 1 : p;
+            fields.add(decode(buffer, start, end - start));
+            if (atEndOfRecord) {
+                return Math.min(p + 1, limit);
+            }
+            p++;
+        }
+    }
+
+    /**
+     * ダブルクォートで囲まれたフィールドを読み込む。
+     *
+     * @param p      開始のダブルクォートの次の位置(領域内の位置)
+     * @param offset 領域のファイル内の位置
+     * @return 終了のダブルクォートの次の位置(領域の末尾で途切れている場合は -1)
+     */
+    private int parseQuoted(MappedByteBuffer buffer, int p, int limit, boolean last, long offset) throws IOException {
+        var start = p - 1;
+        var length = 0;
+        while (p < limit) {
+            var c = buffer.get(p);
+            if (c == QUOTE) {
+                if (p + 1 >= limit && !last) {
+                    return -1;
+                }
+                if (p + 1 < limit && buffer.get(p + 1) == QUOTE) {
+                    ensureCapacity(length + 1);
+                    scratch[length++] = QUOTE;
+                    p += 2;
+                    continue;
+                }
+                fields.add(new String(scratch, 0, length, charset));
+                return p + 1;
+            }
+            ensureCapacity(length + 1);
+            scratch[length++] = c;
+            p++;
+        }
+        if (last) {
+            throw new IOException("Unterminated quoted field at offset " + (offset + start) + ". (" + path + ")");
+        }
+        return -1;
+    }
+
+    private String decode(MappedByteBuffer buffer, int start, int length) {
+        if (length == 0) {
+            return "";
+        }
+        ensureCapacity(length);
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, charset);
+    }
+
+    private void ensureCapacity(int length) {
+        if (length > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length * 2));
+        }
+    }
+}
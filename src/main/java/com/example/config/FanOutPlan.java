@@ -0,0 +1,116 @@
+package com.example.config;
+
+import org.modelmapper.ModelMapper;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 1つのソースを複数の送信先にマッピングするための計画
+ * <p>
+ * 送信先ごとの PropertyPlan を束ね、ソースのgetterは1回だけ呼び出し、
+ * (ソースのプロパティ, 送信先の型) の組み合わせごとの変換も1回だけ行う。
+ * 直接代入できない送信先は ModelMapper#map に委譲する。
+ */
+final class FanOutPlan {
+
+    private final List<Class<?>> destinationTypes;
+    private final PropertyPlan[] plans;
+    private final PropertyPlan.Step[] getters;
+    private final int[][] getterIndexes;
+    private final int[][] conversionIndexes;
+    private final int conversionCount;
+
+    private FanOutPlan(List<Class<?>> destinationTypes, PropertyPlan[] plans, PropertyPlan.Step[] getters,
+                       int[][] getterIndexes, int[][] conversionIndexes, int conversionCount) {
+        this.destinationTypes = destinationTypes;
+        this.plans = plans;
+        this.getters = getters;
+        this.getterIndexes = getterIndexes;
+        this.conversionIndexes = conversionIndexes;
+        this.conversionCount = conversionCount;
+    }
+
+    /**
+     * 送信先ごとの計画から、getterと変換を共有する計画を組み立てる。
+     *
+     * @param plans 送信先ごとのマッピング計画(ソースの型は同一であること)
+     * @return マッピング計画
+     */
+    static FanOutPlan of(List<PropertyPlan> plans) {
+        var getterSlots = new LinkedHashMap<Method, Integer>();
+        var conversionSlots = new LinkedHashMap<List<Object>, Integer>();
+        var getters = new ArrayList<PropertyPlan.Step>();
+        var getterIndexes = new int[plans.size()][];
+        var conversionIndexes = new int[plans.size()][];
+
+        for (int i = 0; i < plans.size(); i++) {
+            var steps = plans.get(i).steps();
+            getterIndexes[i] = new int[steps.size()];
+            conversionIndexes[i] = new int[steps.size()];
+            for (int j = 0; j < steps.size(); j++) {
+                var step = steps.get(j);
+                int getterIndex = getterSlots.computeIfAbsent(step.getterMethod(), m -> {
+                    getters.add(step);
+                    return getters.size() - 1;
+                });
+                getterIndexes[i][j] = getterIndex;
+                conversionIndexes[i][j] = step.needsConversion()
+                        ? conversionSlots.computeIfAbsent(List.of(getterIndex, step.destinationType()), k -> conversionSlots.size())
+                        : -1;
+            }
+        }
+        return new FanOutPlan(
+                plans.stream().<Class<?>>map(PropertyPlan::destinationType).toList(),
+                plans.toArray(PropertyPlan[]::new),
+                getters.toArray(PropertyPlan.Step[]::new),
+                getterIndexes,
+                conversionIndexes,
+                conversionSlots.size());
+    }
+
+    /**
+     * ソースを全ての送信先にマッピングする。
+     *
+     * @param mapper ModelMapper
+     * @param source ソース
+     * @return 送信先の型 -> マッピング結果
+     */
+    Map<Class<?>, Object> map(ModelMapper mapper, Object source) {
+        var values = new Object[getters.length];
+        for (int i = 0; i < getters.length; i++) {
+            values[i] = PropertyPlan.read(getters[i], source);
+        }
+        var converted = new Object[conversionCount];
+        var convertedFlags = new boolean[conversionCount];
+
+        var results = new LinkedHashMap<Class<?>, Object>(plans.length * 2);
+        for (int i = 0; i < plans.length; i++) {
+            var plan = plans[i];
+            if (!plan.isDirect()) {
+                results.put(destinationTypes.get(i), mapper.map(source, plan.destinationType()));
+                continue;
+            }
+            var destination = plan.newDestination();
+            var steps = plan.steps();
+            for (int j = 0; j < steps.size(); j++) {
+                var step = steps.get(j);
+                var value = values[getterIndexes[i][j]];
+                int slot = conversionIndexes[i][j];
+                if (slot >= 0) {
+                    if (!convertedFlags[slot]) {
+                        converted[slot] = PropertyPlan.convert(mapper, step, value);
+                        convertedFlags[slot] = true;
+                    }
+                    value = converted[slot];
+                }
+                plan.write(step, destination, value);
+            }
+            results.put(destinationTypes.get(i), destination);
+        }
+        return results;
+    }
+}
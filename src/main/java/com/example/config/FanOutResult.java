@@ -0,0 +1,35 @@
+package com.example.config;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ModelMapperHolder#mapToEach のマッピング結果
+ */
+public final class FanOutResult {
+
+    private final Map<Class<?>, Object> results;
+
+    FanOutResult(Map<Class<?>, Object> results) {
+        this.results = results;
+    }
+
+    /**
+     * 送信先の型を指定してマッピング結果を取得する。
+     *
+     * @param destinationType 送信先の型(mapToEachで指定したもの)
+     * @return マッピング結果
+     */
+    public <D> D get(Class<D> destinationType) {
+        Objects.requireNonNull(destinationType);
+        if (!results.containsKey(destinationType)) {
+            throw new IllegalArgumentException("Destination type not mapped. (" + destinationType.getName() + ")");
+        }
+        return destinationType.cast(results.get(destinationType));
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+}
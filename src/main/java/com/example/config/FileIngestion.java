@@ -0,0 +1,207 @@
+package com.example.config;
+
+import org.modelmapper.ModelMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 区切り文字形式のファイルの取り込み(解析 -> マッピング -> consumer のパイプライン)
+ * <p>
+ * 解析スレッドがファイルを先頭から読み、batchSize 件ごとにマッピングをスレッドプールに投入する。
+ * 呼び出し元スレッドはファイル中の順序どおりにマッピング結果を受け取り、consumer に渡す。
+ * 未処理のバッチは parallelism x 2 件までとし、consumer が遅い場合は解析を待たせる。
+ * <p>
+ * 引用符で囲まれたフィールドには改行を含められるため、ファイルを分割して並列に解析することはせず、
+ * 解析は1スレッド・マッピングは複数スレッドで行う。
+ *
+ * @param <D> 送信先の型
+ */
+final class FileIngestion<D> {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /**
+     * ファイルの終わりを表す
+     */
+    private static final Future<List<?>> END = CompletableFuture.completedFuture(List.of());
+
+    private final ModelMapper mapper;
+    private final Path path;
+    private final Class<D> destinationType;
+    private final IngestOptions options;
+    private final long windowSize;
+
+    FileIngestion(ModelMapper mapper, Path path, Class<D> destinationType, IngestOptions options, long windowSize) {
+        this.mapper = mapper;
+        this.path = path;
+        this.destinationType = destinationType;
+        this.options = options;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * @param consumer マッピング結果を batchSize 件ずつ受け取る(呼び出し元スレッドで実行)
+     * @return 取り込んだ件数(見出し行を除く)
+     */
+    long run(Consumer<List<D>> consumer) throws IOException {
+        var pending = new ArrayBlockingQueue<Future<List<?>>>(options.parallelism() * 2);
+        var workers = Executors.newFixedThreadPool(options.parallelism(), r -> newThread(r, "ingest-map"));
+        var parser = newThread(() -> parse(workers, pending), "ingest-parse");
+        parser.start();
+        var completed = false;
+        try {
+            var count = 0L;
+            while (true) {
+                var batch = await(pending.take());
+                if (batch == null) {
+                    break;
+                }
+                consumer.accept(batch);
+                count += batch.size();
+            }
+            completed = true;
+            return count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while ingesting " + path, e);
+        } finally {
+            if (!completed) {
+                parser.interrupt();
+            }
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * 解析スレッドの処理。マッピングを投入し、その Future を順に pending に格納する。
+     */
+    private void parse(ExecutorService workers, BlockingQueue<Future<List<?>>> pending) {
+        try {
+            var batcher = new Batcher(workers, pending);
+            new DelimitedFileParser(path, options.delimiter(), options.charset(), windowSize).parse(batcher);
+            batcher.flush();
+            pending.put(END);
+        } catch (Interrupted e) {
+            // 呼び出し元で中断された
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            try {
+                pending.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return マッピング結果(ファイルの終わりの場合は null)
+     */
+    @SuppressWarnings("unchecked")
+    private List<D> await(Future<List<?>> future) throws IOException, InterruptedException {
+        if (future == END) {
+            return null;
+        }
+        try {
+            return (List<D>) future.get();
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Failed to ingest " + path, cause);
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Ingestion cancelled. (" + path + ")", e);
+        }
+    }
+
+    private static Thread newThread(Runnable runnable, String prefix) {
+        var thread = new Thread(runnable, prefix + "-" + THREAD_NUMBER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * 解析したレコードを batchSize 件ずつまとめてマッピングを投入する。1件目は見出し行として扱う。
+     */
+    private final class Batcher implements Consumer<String[]> {
+
+        private final ExecutorService workers;
+        private final BlockingQueue<Future<List<?>>> pending;
+        private RowPlan plan;
+        private List<String[]> rows;
+
+        private Batcher(ExecutorService workers, BlockingQueue<Future<List<?>>> pending) {
+            this.workers = workers;
+            this.pending = pending;
+        }
+
+        @Override
+        public void accept(String[] record) {
+            if (plan == null) {
+                plan = RowPlan.compile(mapper, record, destinationType);
+                rows = new ArrayList<>(options.batchSize());
+                return;
+            }
+            rows.add(record);
+            if (rows.size() == options.batchSize()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows == null || rows.isEmpty()) {
+                return;
+            }
+            var batch = rows;
+            var rowPlan = plan;
+            rows = new ArrayList<>(options.batchSize());
+            try {
+                pending.put(workers.<List<?>>submit(() -> {
+                    var result = new ArrayList<D>(batch.size());
+                    for (var row : batch) {
+                        result.add(destinationType.cast(rowPlan.map(mapper, row)));
+                    }
+                    return result;
+                }));
+            } catch (InterruptedException e) {
+                throw new Interrupted();
+            }
+        }
+    }
+
+    /**
+     * 解析中に中断されたことを表す(DelimitedFileParser のコールバックから抜けるため非チェック例外とする)
+     */
+    private static final class Interrupted extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private Interrupted() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.config;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * イミュータブルな型の判定
+ * <p>
+ * 以下の型をイミュータブルとみなす。判定結果はクラスごとにキャッシュする。
+ * <ul>
+ *     <li>プリミティブ、ラッパー、String、enum、java.time などの値型</li>
+ *     <li>全てのコンポーネントがイミュータブルなRecord</li>
+ *     <li>全てのフィールドが final かつイミュータブルな final クラス(Lombokの@Valueなど)</li>
+ * </ul>
+ * List などのコレクション型は、実装が不変か判定できないためイミュータブルとみなさない。
+ */
+final class ImmutableTypes {
+
+    private static final ClassValue<Boolean> CACHE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isImmutable(type, new HashSet<>());
+        }
+    };
+
+    private ImmutableTypes() {
+    }
+
+    static boolean isImmutable(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    private static boolean isImmutable(Class<?> type, Set<Class<?>> visiting) {
+        if (PropertyPlan.isImmutable(type)) {
+            return true;
+        }
+        if (type.isArray() || type.isInterface() || !Modifier.isFinal(type.getModifiers())) {
+            return false;
+        }
+        if (!visiting.add(type)) {
+            // 循環参照は判定中の型の結果に委ねる
+            return true;
+        }
+        if (type.isRecord()) {
+            for (var component : type.getRecordComponents()) {
+                if (!isImmutable(component.getType(), visiting)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                if (!Modifier.isFinal(field.getModifiers()) || !isImmutable(field.getType(), visiting)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
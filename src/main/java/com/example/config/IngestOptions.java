@@ -0,0 +1,81 @@
+package com.example.config;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 区切り文字形式のファイルの取り込み設定
+ *
+ * @param delimiter   区切り文字(ASCII。UTF-8・US-ASCII・ISO-8859-1 以外の文字コードでは 0x40～0x7E を除く)
+ * @param charset     文字コード(UTF-8, MS932 など ASCII 互換のもの)
+ * @param batchSize   1回に consumer に渡す件数
+ * @param parallelism マッピングを行うスレッド数
+ */
+public record IngestOptions(char delimiter, Charset charset, int batchSize, int parallelism) {
+
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    public IngestOptions {
+        Objects.requireNonNull(charset);
+        if (delimiter > 0x7F || delimiter == '"' || delimiter == '\r' || delimiter == '\n') {
+            throw new IllegalArgumentException("Invalid delimiter. (" + delimiter + ")");
+        }
+        if (batchSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("batchSize and parallelism must be positive.");
+        }
+        // 区切り文字・引用符・改行をバイト単位で判定するため、ASCII 互換の文字コードに限る
+        var ascii = "\",\t\r\n" + delimiter;
+        if (!charset.canEncode() || !Arrays.equals(ascii.getBytes(charset), ascii.getBytes(StandardCharsets.US_ASCII))) {
+            throw new IllegalArgumentException("Charset must be ASCII compatible. (" + charset + ")");
+        }
+        // MS932(Shift_JIS)・GBK などは2バイト文字の2バイト目に 0x40～0x7E を含むため、その範囲の区切り文字(| @ [ \ ] ^ など)は
+        // 文字の途中で一致してしまう。引用符・改行・カンマ・タブは 0x40 未満のため一致しない
+        if (delimiter >= 0x40 && !isSingleByteSafe(charset)) {
+            throw new IllegalArgumentException(
+                    "Delimiter '" + delimiter + "' may appear inside multibyte characters of " + charset + ".");
+        }
+    }
+
+    /**
+     * @return ASCII の範囲のバイトが、常に ASCII の文字を表す(複数バイトの文字の一部にならない)文字コードの場合 true
+     */
+    private static boolean isSingleByteSafe(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8)
+                || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return CSV(カンマ区切り, UTF-8)
+     */
+    public static IngestOptions csv() {
+        return new IngestOptions(',', StandardCharsets.UTF_8, DEFAULT_BATCH_SIZE, defaultParallelism());
+    }
+
+    /**
+     * @return TSV(タブ区切り, UTF-8)
+     */
+    public static IngestOptions tsv() {
+        return new IngestOptions('\t', StandardCharsets.UTF_8, DEFAULT_BATCH_SIZE, defaultParallelism());
+    }
+
+    public IngestOptions withCharset(Charset charset) {
+        return new IngestOptions(delimiter, charset, batchSize, parallelism);
+    }
+
+    public IngestOptions withBatchSize(int batchSize) {
+        return new IngestOptions(delimiter, charset, batchSize, parallelism);
+    }
+
+    public IngestOptions withParallelism(int parallelism) {
+        return new IngestOptions(delimiter, charset, batchSize, parallelism);
+    }
+
+    private static int defaultParallelism() {
+        // 1スレッドは解析に使う
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.example.config;
+
+/**
+ * ModelMapperHolder#project で作成した遅延評価のプロジェクション
+ * <p>
+ * プロジェクションはこのインタフェースも実装しているため、キャストして利用する。
+ * <pre>{@code
+ * var view = holder.project(MODEL_MAPPER, source, WideTarget.class, WideView.class);
+ * ((LazyProjection) view).materialize();
+ * }</pre>
+ */
+public interface LazyProjection {
+
+    /**
+     * 未評価のプロパティを全て変換し、ソースへの参照を解放する。
+     * 以降、ソースを変更してもプロジェクションの値は変わらない。
+     */
+    void materialize();
+
+    /**
+     * @return materialize() 済みの場合 true
+     */
+    boolean isMaterialized();
+
+}
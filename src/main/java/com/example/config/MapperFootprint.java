@@ -0,0 +1,25 @@
+package com.example.config;
+
+import java.util.List;
+
+/**
+ * ModelMapper のヒープ使用量
+ *
+ * @param key            ModelMapperの名前
+ * @param typeMapCount   TypeMap の件数
+ * @param mappingCount   全 TypeMap のマッピングの件数
+ * @param estimatedBytes ModelMapper から到達できるオブジェクトの見積もりサイズ(TypeMap, Configuration, コンバーターなど)
+ * @param typeMaps       TypeMap ごとのヒープ使用量(見積もりサイズの降順)
+ */
+public record MapperFootprint(String key, int typeMapCount, int mappingCount, long estimatedBytes,
+                              List<TypeMapFootprint> typeMaps) {
+
+    /**
+     * @param limit 件数
+     * @return 見積もりサイズの大きい TypeMap
+     */
+    public List<TypeMapFootprint> largestTypeMaps(int limit) {
+        return typeMaps.subList(0, Math.min(limit, typeMaps.size()));
+    }
+
+}
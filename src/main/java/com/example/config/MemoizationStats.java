@@ -0,0 +1,23 @@
+package com.example.config;
+
+/**
+ * マッピング結果のキャッシュの統計情報
+ *
+ * @param hitCount      キャッシュから返した回数
+ * @param missCount     キャッシュに無くマッピングした回数(キャッシュ対象外の型は含まない)
+ * @param bypassCount   ヒット率が低いためキャッシュを参照せずにマッピングした回数
+ * @param evictionCount 上限を超えて破棄した件数
+ * @param size          現在のキャッシュ件数
+ * @param maximumSize   キャッシュ件数の上限
+ */
+public record MemoizationStats(long hitCount, long missCount, long bypassCount, long evictionCount, long size, long maximumSize) {
+
+    /**
+     * @return キャッシュを参照した回数に対するヒット率(参照が無い場合は 0)
+     */
+    public double hitRate() {
+        var requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+}
@@ -0,0 +1,230 @@
+package com.example.config;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 件数上限付きのLRUキャッシュ
+ * <p>
+ * ロック競合を減らすため、キーのハッシュ値で分割したセグメントごとにLRUで破棄する。
+ * <p>
+ * ヒットしないキャッシュは参照・登録の分だけマッピングを遅くするため、グループ(型の組み合わせ)ごとにヒット率を測り、
+ * ヒット率が低いグループはキャッシュを参照せずにマッピングする。参照しない間も一定間隔でキャッシュを参照してヒット率を測り直す。
+ * 呼び出し側は admission(...) で取得した判定が shouldLookup() == false の場合、キーを作成せずに直接マッピングすること。
+ */
+final class MemoizingCache {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    /** ヒット率を判定する参照回数 */
+    private static final int WINDOW = 1024;
+    /** キャッシュを利用するヒット率(%)の下限 */
+    private static final int MIN_HIT_PERCENT = 10;
+    /** キャッシュを利用しない間、ヒット率を測るために参照する間隔 */
+    private static final int SAMPLING_INTERVAL = 64;
+
+    private final Segment[] segments;
+    private final int maximumSize;
+    private final ClassValue<AdmissionTable> admissions = new ClassValue<>() {
+        @Override
+        protected AdmissionTable computeValue(Class<?> type) {
+            return new AdmissionTable();
+        }
+    };
+    private final CopyOnWriteArrayList<Admission> allAdmissions = new CopyOnWriteArrayList<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    MemoizingCache(int maximumSize) {
+        if (maximumSize < SEGMENT_COUNT) {
+            throw new IllegalArgumentException("maximumSize must be >= " + SEGMENT_COUNT + ". (" + maximumSize + ")");
+        }
+        this.maximumSize = maximumSize;
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(maximumSize / SEGMENT_COUNT);
+        }
+    }
+
+    /**
+     * グループ(ModelMapperの名前, ソースの型, 送信先の型)のキャッシュ利用の判定を返す。
+     * 作成済みの判定の参照はオブジェクトを作成せず、ロックも取らない。
+     *
+     * @param key             ModelMapperの名前
+     * @param sourceType      ソースの型
+     * @param destinationType 送信先の型
+     * @return キャッシュ利用の判定
+     */
+    Admission admission(String key, Class<?> sourceType, Class<?> destinationType) {
+        return admissions.get(sourceType).get(key, destinationType);
+    }
+
+    /**
+     * キャッシュした値を返す。無い場合は値を作成し、cacheable を満たす場合に登録する。
+     * admission.shouldLookup() == true の場合のみ呼び出すこと。
+     *
+     * @param admission キャッシュ利用の判定
+     * @param key       キー
+     * @param loader    値の作成
+     * @param cacheable 登録する値の条件
+     * @return 値
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(Admission admission, Object key, Supplier<T> loader, Predicate<T> cacheable) {
+        var segment = segmentFor(key);
+        var cached = segment.get(key);
+        admission.record(cached != null);
+        if (cached != null) {
+            hitCount.increment();
+            return (T) cached;
+        }
+        missCount.increment();
+        var value = loader.get();
+        if (value != null && cacheable.test(value)) {
+            segment.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 条件を満たすキーの値を破棄する(ヒット率の判定は維持する)。
+     *
+     * @param filter 破棄するキーの条件
+     */
+    void invalidate(Predicate<Object> filter) {
+        for (var segment : segments) {
+            segment.removeIf(filter);
+        }
+    }
+
+    MemoizationStats stats() {
+        long size = 0;
+        for (var segment : segments) {
+            size += segment.size();
+        }
+        long bypassCount = 0;
+        for (var admission : allAdmissions) {
+            bypassCount += admission.bypassCount;
+        }
+        return new MemoizationStats(hitCount.sum(), missCount.sum(), bypassCount, evictionCount.sum(),
+                size, maximumSize);
+    }
+
+    private Segment segmentFor(Object key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * ソースの型ごとの、(ModelMapperの名前, 送信先の型) -> キャッシュ利用の判定
+     * <p>
+     * 組み合わせは少数のため配列を線形に探索し、追加時のみ配列を複製する。
+     */
+    private final class AdmissionTable {
+
+        private record Entry(String key, Class<?> destinationType, Admission admission) {
+        }
+
+        private volatile Entry[] entries = new Entry[0];
+
+        Admission get(String key, Class<?> destinationType) {
+            for (var entry : entries) {
+                if (entry.destinationType() == destinationType && entry.key().equals(key)) {
+                    return entry.admission();
+                }
+            }
+            return add(key, destinationType);
+        }
+
+        private synchronized Admission add(String key, Class<?> destinationType) {
+            for (var entry : entries) {
+                if (entry.destinationType() == destinationType && entry.key().equals(key)) {
+                    return entry.admission();
+                }
+            }
+            var admission = new Admission();
+            var added = Arrays.copyOf(entries, entries.length + 1);
+            added[entries.length] = new Entry(key, destinationType, admission);
+            entries = added;
+            allAdmissions.add(admission);
+            return admission;
+        }
+    }
+
+    /**
+     * グループごとのキャッシュ利用の判定
+     * <p>
+     * カウンタは同期しない(競合時に多少ずれても判定には影響しない。bypassCount の集計値も多少ずれる)。
+     */
+    static final class Admission {
+
+        private int requests;
+        private int hits;
+        private int calls;
+        private long bypassCount;
+        private volatile boolean bypass;
+
+        /**
+         * @return キャッシュを参照する場合 true。false の場合は参照しなかった回数として数える
+         */
+        boolean shouldLookup() {
+            if (!bypass || ++calls % SAMPLING_INTERVAL == 0) {
+                return true;
+            }
+            bypassCount++;
+            return false;
+        }
+
+        void record(boolean hit) {
+            if (hit) {
+                hits++;
+            }
+            if (++requests >= WINDOW) {
+                bypass = hits * 100 < requests * MIN_HIT_PERCENT;
+                requests = 0;
+                hits = 0;
+            }
+        }
+    }
+
+    private final class Segment {
+
+        private final Map<Object, Object> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                    if (size() > capacity) {
+                        evictionCount.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Object get(Object key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(Object key, Object value) {
+            entries.put(key, value);
+        }
+
+        synchronized void removeIf(Predicate<Object> filter) {
+            entries.keySet().removeIf(filter);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
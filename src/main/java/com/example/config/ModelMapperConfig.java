@@ -12,6 +12,8 @@ import org.modelmapper.module.jsr310.Jsr310ModuleConfig;
 import org.modelmapper.record.RecordModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.env.Environment;
 
 import java.util.Arrays;
 import java.util.List;
@@ -19,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 
 @Configuration
+@ImportRuntimeHints(ModelMapperRuntimeHints.class)
 public class ModelMapperConfig {
 
     public static final String MODEL_MAPPER = "modelMapper";
@@ -41,6 +44,26 @@ public class ModelMapperConfig {
     }
 
 
+    /**
+     * ヒープ使用量の参照(JMX: com.example:type=ModelMapperFootprint、spring.jmx.enabled=true の場合に公開)
+     *
+     * @return ModelMapperFootprint
+     */
+    @Bean
+    ModelMapperFootprint modelMapperFootprint(ModelMapperHolder modelMapperHolder) {
+        return new ModelMapperFootprint(modelMapperHolder);
+    }
+
+    /**
+     * CDS のトレーニング実行用のウォームアップ(model-mapper.warm-up=true の場合のみ実行)
+     *
+     * @return ModelMapperWarmup
+     */
+    @Bean
+    ModelMapperWarmup modelMapperWarmup(ModelMapperHolder modelMapperHolder, Environment environment) {
+        return new ModelMapperWarmup(modelMapperHolder, environment);
+    }
+
     /**
      * 標準設定
      *
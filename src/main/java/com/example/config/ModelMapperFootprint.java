@@ -0,0 +1,110 @@
+package com.example.config;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeMap;
+import org.modelmapper.config.Configuration;
+import org.modelmapper.spi.MappingEngine;
+import org.modelmapper.spi.PropertyInfo;
+
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ModelMapper のヒープ使用量の集計と、JMXへの公開
+ * <p>
+ * MBeanServerへの登録は Spring の MBeanExporter が行う(spring.jmx.enabled=true の場合のみ)。
+ * 同名のMBeanが登録済みの場合の扱いは spring.jmx.registration-policy・spring.jmx.unique-names に従う。
+ */
+@ManagedResource(objectName = ModelMapperFootprint.OBJECT_NAME)
+public class ModelMapperFootprint implements ModelMapperFootprintMXBean {
+
+    public static final String OBJECT_NAME = "com.example:type=ModelMapperFootprint";
+
+    private final ModelMapperHolder modelMapperHolder;
+
+    ModelMapperFootprint(ModelMapperHolder modelMapperHolder) {
+        this.modelMapperHolder = modelMapperHolder;
+    }
+
+    /**
+     * ModelMapper 内部の static なレジストリ(TypeInfoRegistry)が保持する TypeInfo の実装クラス(パッケージプライベートのため名前で判定する)
+     */
+    private static final String TYPE_INFO_CLASS_NAME = "org.modelmapper.internal.TypeInfoImpl";
+
+    /**
+     * ModelMapper のヒープ使用量を集計する。
+     * <p>
+     * TypeMap ごとの見積もりは、他の TypeMap・Configuration・MappingEngine・Class など共有されるオブジェクトを含まない。
+     * static なレジストリで共有されるプロパティ情報(PropertyInfo・TypeInfo)は、TypeMap ごとの見積もりにも全体の見積もりにも含まない。
+     * ただし、複数の TypeMap に設定した同じコンバーター・プロバイダーはそれぞれの TypeMap で数えるため、
+     * TypeMap ごとの見積もりの合計が全体の見積もりを上回る場合がある。
+     *
+     * @param key    ModelMapperの名前
+     * @param mapper ModelMapper
+     * @return ヒープ使用量
+     */
+    static MapperFootprint snapshot(String key, ModelMapper mapper) {
+        var typeMaps = mapper.getTypeMaps().stream()
+                .map(ModelMapperFootprint::snapshot)
+                .sorted(Comparator.comparingLong(TypeMapFootprint::estimatedBytes).reversed())
+                .toList();
+        return new MapperFootprint(
+                key,
+                typeMaps.size(),
+                typeMaps.stream().mapToInt(TypeMapFootprint::mappingCount).sum(),
+                ObjectSizeEstimator.estimate(mapper, ModelMapperFootprint::isRegistryShared),
+                typeMaps);
+    }
+
+    private static TypeMapFootprint snapshot(TypeMap<?, ?> typeMap) {
+        var name = typeMap.getSourceType().getSimpleName() + " -> " + typeMap.getDestinationType().getSimpleName();
+        if (typeMap.getName() != null) {
+            name += " [" + typeMap.getName() + "]";
+        }
+        var estimatedBytes = ObjectSizeEstimator.estimate(typeMap,
+                o -> o instanceof TypeMap<?, ?> || o instanceof Configuration || o instanceof MappingEngine
+                        || isRegistryShared(o));
+        return new TypeMapFootprint(name, typeMap.getMappings().size(), estimatedBytes);
+    }
+
+    private static boolean isRegistryShared(Object object) {
+        return object instanceof PropertyInfo || object.getClass().getName().equals(TYPE_INFO_CLASS_NAME);
+    }
+
+    /**
+     * オブジェクトから到達できるオブジェクトのサイズの合計を見積もる。
+     * 64bit JVM・圧縮参照を前提とした概算値。
+     *
+     * @param object 対象
+     * @return 見積もりサイズ(バイト)
+     */
+    public static long estimateBytes(Object object) {
+        return ObjectSizeEstimator.estimate(object);
+    }
+
+    @Override
+    public Map<String, Integer> getTypeMapCounts() {
+        var result = new LinkedHashMap<String, Integer>();
+        modelMapperHolder.footprint().forEach(f -> result.put(f.key(), f.typeMapCount()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getEstimatedBytes() {
+        var result = new LinkedHashMap<String, Long>();
+        modelMapperHolder.footprint().forEach(f -> result.put(f.key(), f.estimatedBytes()));
+        return result;
+    }
+
+    @Override
+    public List<String> largestTypeMaps(String key, int limit) {
+        return snapshot(key, modelMapperHolder.get(key)).largestTypeMaps(limit).stream()
+                .map(TypeMapFootprint::toString)
+                .toList();
+    }
+
+}
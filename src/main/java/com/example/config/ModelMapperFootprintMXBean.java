@@ -0,0 +1,30 @@
+package com.example.config;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ModelMapper のヒープ使用量をJMXで参照する
+ * <p>
+ * 参照のたびにオブジェクトグラフをたどって集計するため、頻繁に呼び出さないこと。
+ */
+public interface ModelMapperFootprintMXBean {
+
+    /**
+     * @return ModelMapperの名前 -> TypeMap の件数
+     */
+    Map<String, Integer> getTypeMapCounts();
+
+    /**
+     * @return ModelMapperの名前 -> 見積もりサイズ(バイト)
+     */
+    Map<String, Long> getEstimatedBytes();
+
+    /**
+     * @param key   ModelMapperの名前
+     * @param limit 件数
+     * @return 見積もりサイズの大きい TypeMap("Source -> Target (mappings=n, estimatedBytes=n)" 形式)
+     */
+    List<String> largestTypeMaps(String key, int limit);
+
+}
@@ -1,16 +1,57 @@
 package com.example.config;
 
 import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeMap;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
+/**
+ * 名前付きのModelMapperと、型の組み合わせごとのマッピング計画を保持する
+ * <p>
+ * マッピング計画はTypeMapをもとに作成して使い回すため、TypeMapの設定(addMapping・コンバーターなど)は、
+ * このクラスでその型の組み合わせを初めて使う前(ModelMapperConfigでのBean作成時)に確定させること。
+ * 使い始めた後に変更する場合は configureTypeMap を使う。
+ * get(key) で取得したModelMapperから直接変更した場合、コレクション単位のマッピング(mapList・mapColumns など)は
+ * IllegalStateException をスローする。1件ごとのマッピング(map・mapToEach など)は、TypeMapのロックを避けるため確認しない。
+ */
 public class ModelMapperHolder {
 
+    static final int DEFAULT_MEMOIZATION_SIZE = 10_000;
+
     private final Map<String, ModelMapper> modelMappers;
 
+    private final SingleFlightCache<PlanKey, TypeMap<?, ?>> typeMaps = new SingleFlightCache<>();
+    private final SingleFlightCache<PlanKey, PropertyPlan> propertyPlans = new SingleFlightCache<>();
+    private final SingleFlightCache<FanOutKey, FanOutPlan> fanOutPlans = new SingleFlightCache<>();
+    private final SingleFlightCache<ProjectionKey, ProjectionPlan> projectionPlans = new SingleFlightCache<>();
+    private final SingleFlightCache<PlanKey, ColumnPlan> columnPlans = new SingleFlightCache<>();
+
+    private final AtomicLong planGeneration = new AtomicLong();
+
+    private final MemoizingCache memoizingCache;
+
     ModelMapperHolder(Map<String, ModelMapper> modelMappers) {
+        this(modelMappers, DEFAULT_MEMOIZATION_SIZE);
+    }
+
+    ModelMapperHolder(Map<String, ModelMapper> modelMappers, int memoizationSize) {
         this.modelMappers = modelMappers;
+        this.memoizingCache = new MemoizingCache(memoizationSize);
     }
 
     public ModelMapper get(String key) {
@@ -22,4 +63,441 @@ public class ModelMapperHolder {
         return mm;
     }
 
+    /**
+     * TypeMapを取得する(未作成の場合は作成する)。
+     * <p>
+     * ModelMapper#typeMap と同じ結果になるが、作成済みのTypeMapはModelMapper内部のロックを取らずに返す。
+     * 同じ型の組み合わせの作成(暗黙のマッチング)は1回だけ行い、作成中に要求した他のスレッドはその完了を待つ。
+     * 異なる型の組み合わせの作成は、ModelMapper内部のロックにより順番に行われる。
+     *
+     * @param key             ModelMapperの名前
+     * @param sourceType      ソースの型
+     * @param destinationType 送信先の型
+     * @return TypeMap
+     */
+    @SuppressWarnings("unchecked")
+    public <S, D> TypeMap<S, D> typeMap(String key, Class<S> sourceType, Class<D> destinationType) {
+        Objects.requireNonNull(sourceType);
+        Objects.requireNonNull(destinationType);
+        var mapper = get(key);
+        return (TypeMap<S, D>) typeMaps.get(new PlanKey(key, sourceType, destinationType),
+                k -> mapper.typeMap(k.sourceType(), k.destinationType()));
+    }
+
+    /**
+     * TypeMapを変更し、そのModelMapperの作成済みのマッピング計画と mapMemoized のキャッシュを破棄する。
+     * <p>
+     * このクラスで使い始めた型の組み合わせのTypeMapは、このメソッドで変更すること。
+     * 変更中に同じModelMapperでマッピングしないこと(ModelMapper自体もTypeMapの変更とマッピングの並行実行には対応していない)。
+     * <pre>{@code
+     * holder.configureTypeMap(MODEL_MAPPER, Source.class, Target.class,
+     *         typeMap -> typeMap.addMapping(Source::getCompanyAddress, Target::setFullName));
+     * }</pre>
+     *
+     * @param key             ModelMapperの名前
+     * @param sourceType      ソースの型
+     * @param destinationType 送信先の型
+     * @param configurer      TypeMapを変更する処理
+     * @return 変更したTypeMap
+     */
+    public <S, D> TypeMap<S, D> configureTypeMap(String key, Class<S> sourceType, Class<D> destinationType,
+                                                 Consumer<? super TypeMap<S, D>> configurer) {
+        Objects.requireNonNull(configurer);
+        var typeMap = typeMap(key, sourceType, destinationType);
+        configurer.accept(typeMap);
+        propertyPlans.invalidate(k -> k.key().equals(key));
+        fanOutPlans.invalidate(k -> k.key().equals(key));
+        columnPlans.invalidate(k -> k.key().equals(key));
+        projectionPlans.invalidate(k -> k.key().equals(key));
+        memoizingCache.invalidate(k -> k instanceof MemoKey memoKey && memoKey.key().equals(key));
+        planGeneration.incrementAndGet();
+        return typeMap;
+    }
+
+    /**
+     * ソースを送信先の型にマッピングする。
+     * <p>
+     * get(key).map(source, destinationType) と同じ結果になるが、型の組み合わせごとのTypeMapとマッピング計画は
+     * 1回だけ作成し、作成済みのマッピング計画はロックを取らずに参照する。多数のスレッドが同時に初めての型の組み合わせを
+     * マッピングしても、暗黙のマッチングは1回だけ実行され、他のスレッドはその完了を待つ。
+     * ただし、直接代入できないマッピング計画(コンバーター・値型・ネストしたプロパティなど)は ModelMapper#map に委譲するため、
+     * 呼び出しのたびにModelMapper内部のロック(TypeMapStore#getOrCreate)を取る。
+     *
+     * @param key             ModelMapperの名前
+     * @param source          ソース
+     * @param destinationType 送信先の型
+     * @return マッピング結果
+     */
+    public <D> D map(String key, Object source, Class<D> destinationType) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(destinationType);
+        var mapper = get(key);
+        return destinationType.cast(propertyPlan(key, source.getClass(), destinationType).map(mapper, source));
+    }
+
+    /**
+     * @return typeMap / map などで作成したTypeMapの統計情報
+     */
+    public TypeMapCreationStats typeMapCreationStats() {
+        return new TypeMapCreationStats(typeMaps.creationCount(), typeMaps.waitCount(), typeMaps.size());
+    }
+
+    /**
+     * 1つのソースを複数の送信先にマッピングする。
+     * <p>
+     * 送信先ごとに map() を呼び出す場合と異なり、ソースのgetterの呼び出しと値の変換は1回だけ行う。
+     * 直接代入できない送信先(コンバーターやネストしたプロパティを含むもの)は ModelMapper#map で個別にマッピングする。
+     *
+     * @param key              ModelMapperの名前
+     * @param source           ソース
+     * @param destinationTypes 送信先の型
+     * @return マッピング結果
+     */
+    public FanOutResult mapToEach(String key, Object source, Class<?>... destinationTypes) {
+        Objects.requireNonNull(source);
+        var mapper = get(key);
+        List<Class<?>> types = Arrays.stream(destinationTypes).<Class<?>>map(Objects::requireNonNull).distinct().toList();
+        var plan = fanOutPlans.get(new FanOutKey(key, source.getClass(), types),
+                k -> FanOutPlan.of(k.destinationTypes().stream()
+                        .map(type -> propertyPlan(k.key(), k.sourceType(), type))
+                        .toList()));
+        return new FanOutResult(plan.map(mapper, source));
+    }
+
+    /**
+     * ソースをインタフェース型の遅延評価プロジェクションに変換する。
+     * <p>
+     * プロジェクションの値は get(key).map(source, destinationType) の結果の同名のgetterと同じになる
+     * (ソースの型 -> 送信先の型のTypeMapで対応付ける)。
+     * 各プロパティはgetterが最初に呼ばれた時点で変換され、以降は変換結果を返す。
+     * 直接代入できないプロパティ(コンバーター・ネストしたプロパティなど)は、最初に参照した時点で送信先全体をマッピングする。
+     * プロジェクションはソースへの参照を保持するため、ソースの状態を切り離したい場合は
+     * LazyProjection#materialize を呼び出すこと。
+     * <pre>{@code
+     * WideView view = holder.project(MODEL_MAPPER, source, WideTarget.class, WideView.class);
+     * }</pre>
+     *
+     * @param key             ModelMapperの名前
+     * @param source          ソース
+     * @param destinationType 送信先の型(プロジェクションのgetterと同名のgetterを持つクラス)
+     * @param projectionType  プロジェクションのインタフェース
+     * @return プロジェクション(LazyProjectionも実装する)
+     */
+    public <P> P project(String key, Object source, Class<?> destinationType, Class<P> projectionType) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(destinationType);
+        Objects.requireNonNull(projectionType);
+        var mapper = get(key);
+        var plan = projectionPlans.get(new ProjectionKey(key, source.getClass(), destinationType, projectionType), k -> {
+            // TypeMapでマッピングしない組み合わせ・ValueReaderで読み込むソースは、全てのプロパティを ModelMapper#map の結果から読み込む
+            TypeMap<?, ?> typeMap = null;
+            if (PropertyPlan.usesTypeMap(mapper, k.sourceType(), k.destinationType())
+                    && !PropertyPlan.readsWithValueReader(mapper, k.sourceType())) {
+                typeMap = typeMap(k.key(), k.sourceType(), k.destinationType());
+            }
+            return ProjectionPlan.compile(mapper, typeMap, k.destinationType(), k.projectionType());
+        });
+        return projectionType.cast(plan.newProjection(mapper, source));
+    }
+
+    /**
+     * イミュータブルなソースのマッピング結果をキャッシュしてマッピングする。
+     * <p>
+     * ソースと送信先がともにイミュータブル(Record, @Value など)の場合のみ、(ModelMapperの名前, ソース, 送信先の型)
+     * をキーに結果をキャッシュし、同じ値のソースに対してはマッピングせずにキャッシュした結果を返す。
+     * ヒット率が低い型の組み合わせは、キャッシュを参照せずにマッピングする。
+     * それ以外の場合は get(key).map(source, destinationType) と同じ。
+     *
+     * @param key             ModelMapperの名前
+     * @param source          ソース
+     * @param destinationType 送信先の型
+     * @return マッピング結果
+     */
+    public <D> D mapMemoized(String key, Object source, Class<D> destinationType) {
+        Objects.requireNonNull(source);
+        var mapper = get(key);
+        if (!ImmutableTypes.isImmutable(source.getClass()) || !ImmutableTypes.isImmutable(destinationType)) {
+            return mapper.map(source, destinationType);
+        }
+        // ヒット率が低い場合は、キーを作成せずにマッピングする
+        var admission = memoizingCache.admission(key, source.getClass(), destinationType);
+        if (!admission.shouldLookup()) {
+            return mapper.map(source, destinationType);
+        }
+        return memoizingCache.get(
+                admission,
+                new MemoKey(key, source, destinationType),
+                () -> mapper.map(source, destinationType),
+                result -> true);
+    }
+
+    /**
+     * Builderを経由してイミュータブルなクラスにマッピングし、結果をキャッシュする。
+     * <p>
+     * ソースと build の結果がともにイミュータブルな場合のみキャッシュする。
+     * <pre>{@code
+     * holder.mapMemoized(BUILDER_MODEL_MAPPER, source,
+     *         DestinationValue.DestinationValueBuilder.class, DestinationValue.DestinationValueBuilder::build);
+     * }</pre>
+     *
+     * @param key         ModelMapperの名前
+     * @param source      ソース
+     * @param builderType Builderの型
+     * @param build       Builderから送信先を作成する関数
+     * @return マッピング結果
+     */
+    public <B, D> D mapMemoized(String key, Object source, Class<B> builderType, Function<B, D> build) {
+        Objects.requireNonNull(source);
+        var mapper = get(key);
+        if (!ImmutableTypes.isImmutable(source.getClass())) {
+            return build.apply(mapper.map(source, builderType));
+        }
+        var admission = memoizingCache.admission(key, source.getClass(), builderType);
+        if (!admission.shouldLookup()) {
+            return build.apply(mapper.map(source, builderType));
+        }
+        return memoizingCache.get(
+                admission,
+                new MemoKey(key, source, builderType),
+                () -> build.apply(mapper.map(source, builderType)),
+                result -> ImmutableTypes.isImmutable(result.getClass()));
+    }
+
+    /**
+     * @return mapMemoized のキャッシュの統計情報
+     */
+    public MemoizationStats memoizationStats() {
+        return memoizingCache.stats();
+    }
+
+    /**
+     * リストの要素を送信先の型にマッピングする。
+     * <p>
+     * map(list, new TypeToken&lt;List&lt;D&gt;&gt;(){}.getType()) と同じ結果になるが、総称型の解決と要素のTypeMapの検索は
+     * 要素の型ごとに1回だけ行い、事前に確保したリストにマッピングする。null の要素は null のままとする。
+     *
+     * @param key             ModelMapperの名前
+     * @param sources         ソースのコレクション
+     * @param destinationType 要素の送信先の型
+     * @return マッピング結果(ArrayList)
+     */
+    public <D> List<D> mapList(String key, Collection<?> sources, Class<D> destinationType) {
+        return mapCollection(key, sources, destinationType, ArrayList::new);
+    }
+
+    /**
+     * コレクションの要素を送信先の型にマッピングし、指定した種類のコレクションに格納する。
+     *
+     * @param key               ModelMapperの名前
+     * @param sources           ソースのコレクション
+     * @param destinationType   要素の送信先の型
+     * @param collectionFactory 要素数からコレクションを作成する関数(例: ArrayList::new, HashSet::newHashSet)
+     * @return マッピング結果
+     */
+    public <D, C extends Collection<D>> C mapCollection(String key, Collection<?> sources, Class<D> destinationType,
+                                                        IntFunction<C> collectionFactory) {
+        Objects.requireNonNull(sources);
+        var mapper = get(key);
+        var result = collectionFactory.apply(sources.size());
+        var mapping = new ElementMapping<>(key, mapper, destinationType);
+        for (var source : sources) {
+            result.add(mapping.map(source));
+        }
+        return result;
+    }
+
+    /**
+     * Mapの値を送信先の型にマッピングする。キーはそのまま使用し、順序は保持する。
+     *
+     * @param key             ModelMapperの名前
+     * @param sources         ソースのMap
+     * @param destinationType 値の送信先の型
+     * @return マッピング結果(LinkedHashMap)
+     */
+    public <K, D> Map<K, D> mapMap(String key, Map<K, ?> sources, Class<D> destinationType) {
+        Objects.requireNonNull(sources);
+        var mapper = get(key);
+        var result = new LinkedHashMap<K, D>((int) (sources.size() / 0.75f) + 1);
+        var mapping = new ElementMapping<>(key, mapper, destinationType);
+        for (var entry : sources.entrySet()) {
+            result.put(entry.getKey(), mapping.map(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * コレクションの要素を送信先の型の列の定義(ColumnSchema)に従って、列指向の ColumnBatch に書き込む。
+     * <p>
+     * mapList(key, sources, destinationType) と同じ値を列ごとの配列に格納し、行ごとの送信先オブジェクトは作成しない。
+     * ただし、直接代入できない型の組み合わせ(コンバーターが設定されている場合など)は、行ごとにModelMapperでマッピングしてから書き込む。
+     * null の要素は全ての列を null とする。
+     *
+     * @param key             ModelMapperの名前
+     * @param sources         ソースのコレクション
+     * @param destinationType 送信先の型
+     * @return マッピング結果
+     */
+    public ColumnBatch mapColumns(String key, Collection<?> sources, Class<?> destinationType) {
+        Objects.requireNonNull(sources);
+        var mapper = get(key);
+        var schema = ColumnSchema.of(destinationType);
+        var builder = new ColumnBatch.Builder(schema, sources.size());
+        var verified = new HashSet<Class<?>>();
+        Class<?> sourceType = null;
+        ColumnPlan plan = null;
+        var row = 0;
+        for (var source : sources) {
+            if (source == null) {
+                ColumnPlan.writeNull(builder, row++);
+                continue;
+            }
+            if (source.getClass() != sourceType) {
+                sourceType = source.getClass();
+                plan = columnPlans.get(new PlanKey(key, sourceType, destinationType), k -> ColumnPlan.compile(
+                        mapper, propertyPlan(k.key(), k.sourceType(), k.destinationType()), schema));
+                if (verified.add(sourceType)) {
+                    plan.verify();
+                }
+            }
+            plan.write(mapper, source, builder, row++);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 区切り文字形式(CSV/TSV)のファイルを読み込み、1行ずつ送信先の型にマッピングする。
+     * <p>
+     * 1行目は見出しとし、見出しと同じ名前のプロパティに列の値を代入する(String 以外の型はModelMapperで変換する)。
+     * 列とプロパティの対応付けは名前の完全一致のみで、マッチング戦略や configureTypeMap で設定したTypeMapは使わない。
+     * ファイルはメモリマップして1スレッドで解析し、マッピングは options.parallelism() 個のスレッドで並列に行う。
+     * マッピング結果はファイル中の順序どおりに、options.batchSize() 件ずつ呼び出し元のスレッドで consumer に渡す。
+     *
+     * @param key             ModelMapperの名前
+     * @param path            ファイル
+     * @param destinationType 送信先の型
+     * @param options         区切り文字・文字コード・バッチサイズ・並列数
+     * @param consumer        マッピング結果を受け取る
+     * @return 取り込んだ件数(見出し行を除く)
+     * @throws IOException ファイルの読み込みに失敗した場合、形式が不正な場合
+     */
+    public <D> long ingest(String key, Path path, Class<D> destinationType, IngestOptions options,
+                           Consumer<List<D>> consumer) throws IOException {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(destinationType);
+        Objects.requireNonNull(options);
+        Objects.requireNonNull(consumer);
+        return new FileIngestion<>(get(key), path, destinationType, options, DelimitedFileParser.DEFAULT_WINDOW_SIZE)
+                .run(consumer);
+    }
+
+    /**
+     * ソースの実際の型に応じて送信先の型を切り替えるマッピングを作成する。
+     * 作成した PolymorphicMapping は使い回すこと。
+     *
+     * @param key             ModelMapperの名前
+     * @param sourceType      ソースの基底型
+     * @param destinationType 送信先の基底型
+     * @return PolymorphicMapping の Builder
+     */
+    public <S, D> PolymorphicMapping.Builder<S, D> polymorphic(String key, Class<S> sourceType, Class<D> destinationType) {
+        Objects.requireNonNull(sourceType);
+        Objects.requireNonNull(destinationType);
+        get(key);
+        return new PolymorphicMapping.Builder<>(this, key, sourceType, destinationType);
+    }
+
+    /**
+     * 各ModelMapperのヒープ使用量(TypeMapの件数・マッピング件数・見積もりサイズ)を集計する。
+     * オブジェクトグラフをたどるため、頻繁に呼び出さないこと。
+     *
+     * @return ModelMapperの名前順のヒープ使用量
+     */
+    public List<MapperFootprint> footprint() {
+        return modelMappers.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> ModelMapperFootprint.snapshot(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    /**
+     * @return configureTypeMap でマッピング計画を破棄した回数(PolymorphicMapping の振り分け表の作り直しに使う)
+     */
+    long planGeneration() {
+        return planGeneration.get();
+    }
+
+    /**
+     * @return ModelMapperの名前(名前順)
+     */
+    List<String> keys() {
+        return modelMappers.keySet().stream().sorted().toList();
+    }
+
+    PropertyPlan propertyPlan(String key, Class<?> sourceType, Class<?> destinationType) {
+        return propertyPlan(key, sourceType, destinationType, new HashMap<>());
+    }
+
+    /**
+     * @param sharedSteps 計画間で共有する Step(計画を新たに組み立てる場合のみ使う)
+     */
+    PropertyPlan propertyPlan(String key, Class<?> sourceType, Class<?> destinationType,
+                              Map<PropertyPlan.StepKey, PropertyPlan.Step> sharedSteps) {
+        var mapper = get(key);
+        return propertyPlans.get(new PlanKey(key, sourceType, destinationType), k -> {
+            // ModelMapperがTypeMapを使わない組み合わせ(コンバーター・値型)と、ValueReaderで読み込むソース(Map・Record など)は、
+            // TypeMapを作成せずに委譲する
+            if (!PropertyPlan.usesTypeMap(mapper, k.sourceType(), k.destinationType())
+                    || PropertyPlan.readsWithValueReader(mapper, k.sourceType())) {
+                return PropertyPlan.fallback(mapper, k.sourceType(), k.destinationType());
+            }
+            return PropertyPlan.compile(mapper, typeMap(k.key(), k.sourceType(), k.destinationType()), sharedSteps);
+        });
+    }
+
+    /**
+     * コレクションの要素のマッピング。直前の要素と同じ型の場合は、マッピング計画を検索せずに使い回す。
+     * マッピング計画の元のTypeMapが変更されていないことは、要素の型ごとに1回だけ確認する。
+     */
+    private final class ElementMapping<D> {
+
+        private final String key;
+        private final ModelMapper mapper;
+        private final Class<D> destinationType;
+        private final Set<Class<?>> verified = new HashSet<>();
+        private Class<?> sourceType;
+        private PropertyPlan plan;
+
+        private ElementMapping(String key, ModelMapper mapper, Class<D> destinationType) {
+            this.key = key;
+            this.mapper = mapper;
+            this.destinationType = destinationType;
+        }
+
+        D map(Object source) {
+            if (source == null) {
+                return null;
+            }
+            if (source.getClass() != sourceType) {
+                sourceType = source.getClass();
+                plan = propertyPlan(key, sourceType, destinationType);
+                if (verified.add(sourceType)) {
+                    plan.verify();
+                }
+            }
+            return destinationType.cast(plan.map(mapper, source));
+        }
+    }
+
+    private record PlanKey(String key, Class<?> sourceType, Class<?> destinationType) {
+    }
+
+    private record MemoKey(String key, Object source, Class<?> destinationType) {
+    }
+
+    private record ProjectionKey(String key, Class<?> sourceType, Class<?> destinationType, Class<?> projectionType) {
+    }
+
+    private record FanOutKey(String key, Class<?> sourceType, List<Class<?>> destinationTypes) {
+    }
+
 }
@@ -0,0 +1,68 @@
+package com.example.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spring AOT 処理(mvn -Paot package)でビルド時に作成するヒント
+ * <p>
+ * ModelMapper はドメインクラスの getter/setter・コンストラクタ・フィールドをリフレクションで参照するため、
+ * ドメインクラスのパッケージをビルド時に走査して登録する(ネイティブイメージでも同じ設定でマッピングできる)。
+ * JMX に公開する ModelMapperFootprint の MXBean・戻り値の型も登録する。
+ */
+class ModelMapperRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * ModelMapperでマッピングするドメインクラスのパッケージ
+     */
+    static final String DOMAIN_PACKAGE = "com.example.domain.model";
+
+    private static final MemberCategory[] DOMAIN_MEMBERS = {
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+            MemberCategory.INVOKE_PUBLIC_METHODS,
+            MemberCategory.DECLARED_FIELDS,
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (var className : domainClassNames(classLoader)) {
+            hints.reflection().registerType(TypeReference.of(className), DOMAIN_MEMBERS);
+        }
+        hints.reflection()
+                .registerType(ModelMapperFootprintMXBean.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(MapperFootprint.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(TypeMapFootprint.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+
+    /**
+     * ドメインクラスのパッケージ(サブパッケージを含む)のクラス名を列挙する。クラスはロードしない。
+     *
+     * @param classLoader 走査するクラスローダー
+     * @return クラス名(名前順)
+     */
+    static List<String> domainClassNames(ClassLoader classLoader) {
+        var resolver = new PathMatchingResourcePatternResolver(classLoader);
+        var readerFactory = new CachingMetadataReaderFactory(resolver);
+        var pattern = "classpath*:" + ClassUtils.convertClassNameToResourcePath(DOMAIN_PACKAGE) + "/**/*.class";
+        try {
+            var classNames = new ArrayList<String>();
+            for (var resource : resolver.getResources(pattern)) {
+                classNames.add(readerFactory.getMetadataReader(resource).getClassMetadata().getClassName());
+            }
+            classNames.sort(null);
+            return classNames;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.env.Environment;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * CDS アーカイブを作成するトレーニング実行用のウォームアップ
+ * <p>
+ * 起動時にはドメインクラスや ModelMapper のマッピング処理のクラスはロードされないため、
+ * 通常の起動だけでトレーニングすると、それらのクラスがアーカイブに含まれない。
+ * model-mapper.warm-up=true の場合は、Bean の作成後(spring.context.exit=onRefresh で終了する前)に
+ * ドメインクラスをロードし、各ModelMapperで同じ型へのマッピングを ModelMapper#map(MappingEngine・コンバーター)と
+ * ModelMapperHolder#mapList(マッピング計画)で1回ずつ行う。
+ * <p>
+ * Spring AOT ではビルド時に条件(@ConditionalOnProperty など)が確定してしまうため、Bean は常に登録し、
+ * 実行時にプロパティを参照して切り替える。
+ */
+@Slf4j
+class ModelMapperWarmup implements SmartInitializingSingleton {
+
+    static final String ENABLED_PROPERTY = "model-mapper.warm-up";
+
+    private final ModelMapperHolder modelMapperHolder;
+    private final Environment environment;
+
+    ModelMapperWarmup(ModelMapperHolder modelMapperHolder, Environment environment) {
+        this.modelMapperHolder = modelMapperHolder;
+        this.environment = environment;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!environment.getProperty(ENABLED_PROPERTY, Boolean.class, false)) {
+            return;
+        }
+        var start = System.nanoTime();
+        var classLoader = getClass().getClassLoader();
+        var classes = 0;
+        var mapped = 0;
+        for (var className : ModelMapperRuntimeHints.domainClassNames(classLoader)) {
+            Class<?> type;
+            try {
+                type = Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.debug("Skip warm-up of {}", className, e);
+                continue;
+            }
+            classes++;
+            if (isInstantiable(type)) {
+                mapped += warmUp(type);
+            }
+        }
+        log.info("ModelMapper warm-up finished. (classes={}, mappings={}, {} ms)",
+                classes, mapped, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 各ModelMapperで、型のインスタンスを同じ型にマッピングする。
+     * ModelMapperHolder#mapList は直接代入できるプロパティを MethodHandle で代入し MappingEngine を経由しないため、
+     * 先に ModelMapper#map でマッピングしてから、マッピング計画を作成する。
+     *
+     * @return マッピングできたModelMapperの数
+     */
+    private int warmUp(Class<?> type) {
+        Object source;
+        try {
+            source = type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Skip warm-up of {}", type.getName(), e);
+            return 0;
+        }
+        var mapped = 0;
+        for (var key : modelMapperHolder.keys()) {
+            try {
+                modelMapperHolder.get(key).map(source, type);
+                modelMapperHolder.mapList(key, List.of(source), type);
+                mapped++;
+            } catch (RuntimeException e) {
+                // 同じ型へのマッピングができない型(コンバーターの無いものなど)は、クラスのロードのみとする
+                log.debug("Skip warm-up of {} ({})", type.getName(), key, e);
+            }
+        }
+        return mapped;
+    }
+
+    private static boolean isInstantiable(Class<?> type) {
+        var modifiers = type.getModifiers();
+        return Modifier.isPublic(modifiers)
+                && !Modifier.isAbstract(modifiers)
+                && !type.isInterface()
+                && !type.isEnum()
+                && !type.isAnonymousClass()
+                && (type.getEnclosingClass() == null || Modifier.isStatic(modifiers));
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.config;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * オブジェクトグラフをたどってヒープ使用量を見積もる
+ * <p>
+ * 64bit JVM・圧縮参照(-XX:+UseCompressedOops, ヒープ32GB未満の既定値)を前提に、JOLと同様の方法で
+ * ヘッダ12バイト・参照4バイト・8バイト境界への切り上げとしてインスタンスのサイズを計算する。
+ * フィールドの並び替えによる詰め込みは考慮しないため、実際の値とは多少ずれる。
+ * <p>
+ * java.base のクラスなど、フィールドにアクセスできないオブジェクトは以下の通り扱う。
+ * <ul>
+ *     <li>String: 内部配列を含めて計算する(Latin-1 の範囲外の文字を含む場合は1文字2バイト)</li>
+ *     <li>Collection / Map: 要素をたどり、内部の配列・エントリは要素数から見積もる(Map は HashMap と同じ構造とみなす)</li>
+ *     <li>それ以外: インスタンス自身のサイズのみ計算する</li>
+ * </ul>
+ * Class, ClassLoader, Thread, Springのオブジェクト、内部クラスの外側インスタンスへの参照はたどらない。
+ */
+final class ObjectSizeEstimator {
+
+    private static final int HEADER_BYTES = 12;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ALIGNMENT = 8;
+    /** HashMap.Node: ヘッダ12 + hash 4 + 参照4 x 3 = 28 -> 32 */
+    private static final int MAP_NODE_BYTES = 32;
+    /** HashMap の負荷係数 */
+    private static final float MAP_LOAD_FACTOR = 0.75f;
+
+    private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long size = HEADER_BYTES;
+            for (var current = type; current != null; current = current.getSuperclass()) {
+                for (var field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        size += fieldBytes(field.getType());
+                    }
+                }
+            }
+            return align(size);
+        }
+    };
+
+    private static final ClassValue<Field[]> REFERENCE_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            var fields = new ArrayList<Field>();
+            for (var current = type; current != null; current = current.getSuperclass()) {
+                for (var field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())
+                            || field.getType().isPrimitive()
+                            || field.getName().startsWith("this$")) {
+                        continue;
+                    }
+                    if (field.trySetAccessible()) {
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(Field[]::new);
+        }
+    };
+
+    private ObjectSizeEstimator() {
+    }
+
+    /**
+     * root から到達できるオブジェクトのサイズの合計を見積もる。
+     *
+     * @param root     起点
+     * @param boundary たどらないオブジェクトの条件(root自身には適用しない)
+     * @return 見積もりサイズ(バイト)
+     */
+    static long estimate(Object root, Predicate<Object> boundary) {
+        if (root == null) {
+            return 0;
+        }
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        var stack = new ArrayDeque<Object>();
+        visited.add(root);
+        stack.push(root);
+        long total = 0;
+
+        while (!stack.isEmpty()) {
+            var current = stack.pop();
+            total += visit(current, child -> {
+                if (child != null && !isExcluded(child) && !boundary.test(child) && visited.add(child)) {
+                    stack.push(child);
+                }
+            });
+        }
+        return total;
+    }
+
+    static long estimate(Object root) {
+        return estimate(root, o -> false);
+    }
+
+    /**
+     * オブジェクト自身のサイズを返し、参照先を children に渡す。
+     */
+    private static long visit(Object object, Consumer<Object> children) {
+        var type = object.getClass();
+        if (type.isArray()) {
+            var length = Array.getLength(object);
+            var component = type.getComponentType();
+            if (!component.isPrimitive()) {
+                for (var element : (Object[]) object) {
+                    children.accept(element);
+                }
+            }
+            return align(ARRAY_HEADER_BYTES + (long) length * fieldBytes(component));
+        }
+        if (object instanceof String s) {
+            return SHALLOW_SIZES.get(String.class) + align(ARRAY_HEADER_BYTES + (long) s.length() * charBytes(s));
+        }
+
+        long size = SHALLOW_SIZES.get(type);
+        var fields = REFERENCE_FIELDS.get(type);
+        for (var field : fields) {
+            try {
+                children.accept(field.get(object));
+            } catch (IllegalAccessException e) {
+                // アクセスできないフィールドはたどらない
+            }
+        }
+        if (!type.getModule().isNamed()) {
+            return size;
+        }
+        // JDKのコレクションは内部構造にアクセスできないため、要素数から見積もる
+        try {
+            if (object instanceof Map<?, ?> map) {
+                for (var entry : map.entrySet()) {
+                    children.accept(entry.getKey());
+                    children.accept(entry.getValue());
+                }
+                size += align(ARRAY_HEADER_BYTES + (long) mapCapacity(map.size()) * REFERENCE_BYTES)
+                        + (long) map.size() * MAP_NODE_BYTES;
+            } else if (object instanceof Collection<?> collection) {
+                for (var element : collection) {
+                    children.accept(element);
+                }
+                size += align(ARRAY_HEADER_BYTES + (long) collection.size() * REFERENCE_BYTES);
+            }
+        } catch (ConcurrentModificationException | UnsupportedOperationException e) {
+            // 走査中に変更された場合は、それまでに見つかった要素のみ数える
+        }
+        return size;
+    }
+
+    /**
+     * @return String の内部配列の1文字あたりのバイト数(Compact Strings: Latin-1 は1、それ以外は UTF-16 で2)
+     */
+    private static int charBytes(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) {
+                return 2;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * @return size 件の要素を負荷係数 0.75 で格納する HashMap のテーブルの長さ(2のべき乗)
+     */
+    private static int mapCapacity(int size) {
+        if (size == 0) {
+            return 0;
+        }
+        var capacity = Integer.highestOneBit(Math.max(1, (int) Math.ceil(size / MAP_LOAD_FACTOR) - 1)) << 1;
+        return Math.max(16, capacity);
+    }
+
+    private static boolean isExcluded(Object object) {
+        return object instanceof Class<?>
+                || object instanceof ClassLoader
+                || object instanceof Thread
+                || object.getClass().getName().startsWith("org.springframework.");
+    }
+
+    private static long fieldBytes(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE_BYTES;
+    }
+
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.config;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.spi.ConditionalConverter;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ソースの実際の型に応じて送信先の型を切り替えるマッピング
+ * <p>
+ * (ソースの型 -> 送信先の型)の組み合わせを宣言し、ソースのクラスをキーとした振り分け表を事前に作成する。
+ * マッピング時はソースのクラスで振り分け表を1回引くだけで、instanceof の連鎖は不要。
+ * 宣言していないサブクラスは、最も近い親クラス(またはインタフェース)の宣言に従い、初回に振り分け表に追加する。
+ * 各サブクラスの計画は、基底型から継承したプロパティの getter -> setter を共有する(組み立ては最初の1回だけ)。
+ * <pre>{@code
+ * var mapping = holder.polymorphic(MODEL_MAPPER, BaseSource.class, BaseTarget.class)
+ *         .rule(CustomerSource.class, CustomerTarget.class)
+ *         .rule(EmployeeSource.class, EmployeeTarget.class)
+ *         .build();
+ * List<BaseTarget> targets = mapping.mapList(sources);
+ * }</pre>
+ *
+ * @param <S> ソースの基底型
+ * @param <D> 送信先の基底型
+ */
+public final class PolymorphicMapping<S, D> {
+
+    /**
+     * 振り分け表
+     *
+     * @param generation 作成時の ModelMapperHolder#planGeneration
+     * @param plans      ソースのクラス -> マッピング計画
+     */
+    private record Dispatch(long generation, ClassValue<PropertyPlan> plans) {
+    }
+
+    private final ModelMapperHolder holder;
+    private final String key;
+    private final ModelMapper mapper;
+    private final Class<D> destinationType;
+    private final Map<Class<?>, Class<?>> rules;
+    private final Map<PropertyPlan.StepKey, PropertyPlan.Step> sharedSteps = new ConcurrentHashMap<>();
+    private volatile Dispatch dispatch;
+
+    private PolymorphicMapping(ModelMapperHolder holder, String key, Class<D> destinationType,
+                               Map<Class<?>, Class<?>> rules) {
+        this.holder = holder;
+        this.key = key;
+        this.mapper = holder.get(key);
+        this.destinationType = destinationType;
+        this.rules = rules;
+        this.dispatch = newDispatch();
+    }
+
+    private Dispatch newDispatch() {
+        var generation = holder.planGeneration();
+        var plans = new ClassValue<PropertyPlan>() {
+            @Override
+            protected PropertyPlan computeValue(Class<?> sourceType) {
+                // 同じ型の組み合わせの計画は、他のマッピング(mapList など)と共有する
+                return holder.propertyPlan(key, sourceType, resolve(sourceType), sharedSteps);
+            }
+        };
+        // 宣言した具象クラスの計画はここで作成する
+        rules.keySet().stream()
+                .filter(type -> !type.isInterface() && !Modifier.isAbstract(type.getModifiers()))
+                .forEach(plans::get);
+        return new Dispatch(generation, plans);
+    }
+
+    /**
+     * @param sourceType ソースのクラス
+     * @return マッピング計画(ModelMapperHolder#configureTypeMap で計画が破棄された場合は振り分け表を作り直す)
+     */
+    private PropertyPlan plan(Class<?> sourceType) {
+        var current = dispatch;
+        if (current.generation() != holder.planGeneration()) {
+            current = newDispatch();
+            dispatch = current;
+        }
+        return current.plans().get(sourceType);
+    }
+
+    /**
+     * ソースの実際の型に応じた送信先の型にマッピングする。
+     *
+     * @param source ソース
+     * @return マッピング結果(null の場合は null)
+     */
+    public D map(S source) {
+        if (source == null) {
+            return null;
+        }
+        return destinationType.cast(plan(source.getClass()).map(mapper, source));
+    }
+
+    /**
+     * 型の混在したコレクションをマッピングする。
+     * マッピング計画の元のTypeMapが変更されていないことは、ソースのクラスごとに1回だけ確認する。
+     *
+     * @param sources ソースのコレクション
+     * @return マッピング結果(ArrayList)
+     */
+    public List<D> mapList(Collection<? extends S> sources) {
+        var result = new ArrayList<D>(sources.size());
+        var verified = new HashSet<Class<?>>();
+        for (var source : sources) {
+            if (source != null && verified.add(source.getClass())) {
+                plan(source.getClass()).verify();
+            }
+            result.add(map(source));
+        }
+        return result;
+    }
+
+    /**
+     * @param sourceType ソースの型
+     * @return 送信先の型(宣言が無い場合は IllegalArgumentException)
+     */
+    Class<?> resolve(Class<?> sourceType) {
+        for (var current = sourceType; current != null; current = current.getSuperclass()) {
+            var destination = rules.get(current);
+            if (destination == null) {
+                destination = resolveInterface(current);
+            }
+            if (destination != null) {
+                return destination;
+            }
+        }
+        throw new IllegalArgumentException("No polymorphic mapping rule for " + sourceType.getName());
+    }
+
+    private Class<?> resolveInterface(Class<?> type) {
+        for (var candidate : type.getInterfaces()) {
+            var destination = rules.get(candidate);
+            if (destination == null) {
+                destination = resolveInterface(candidate);
+            }
+            if (destination != null) {
+                return destination;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * PolymorphicMapping の作成
+     *
+     * @param <S> ソースの基底型
+     * @param <D> 送信先の基底型
+     */
+    public static final class Builder<S, D> {
+
+        private final ModelMapperHolder holder;
+        private final String key;
+        private final Class<S> sourceType;
+        private final Class<D> destinationType;
+        private final Map<Class<?>, Class<?>> rules = new LinkedHashMap<>();
+
+        Builder(ModelMapperHolder holder, String key, Class<S> sourceType, Class<D> destinationType) {
+            this.holder = holder;
+            this.key = key;
+            this.sourceType = sourceType;
+            this.destinationType = destinationType;
+        }
+
+        /**
+         * ソースの型と送信先の型の組み合わせを宣言する。
+         *
+         * @param sourceType      ソースの型(クラス・インタフェース。ソースの基底型のサブタイプ)
+         * @param destinationType 送信先の型(送信先の基底型のサブタイプ。引数なしのコンストラクタを持つ具象クラスか、
+         *                        プロバイダー・コンバーターでインスタンスを作成できるもの)
+         * @return Builder
+         */
+        public Builder<S, D> rule(Class<? extends S> sourceType, Class<? extends D> destinationType) {
+            Objects.requireNonNull(sourceType);
+            Objects.requireNonNull(destinationType);
+            // 型引数を経由しない呼び出し(raw型など)でも基底型のサブタイプであることを保証する
+            if (!this.sourceType.isAssignableFrom(sourceType)) {
+                throw new IllegalArgumentException(sourceType.getName() + " is not a subtype of " + this.sourceType.getName());
+            }
+            if (!this.destinationType.isAssignableFrom(destinationType)) {
+                throw new IllegalArgumentException(destinationType.getName() + " is not a subtype of " + this.destinationType.getName());
+            }
+            if (!isInstantiable(holder.get(key), sourceType, destinationType)) {
+                throw new IllegalArgumentException(destinationType.getName() + " cannot be instantiated."
+                        + " Declare a no-arg constructor, or register a provider or converter for " + sourceType.getName());
+            }
+            if (rules.putIfAbsent(sourceType, destinationType) != null) {
+                throw new IllegalStateException("Polymorphic mapping rule already declared. (" + sourceType.getName() + ")");
+            }
+            return this;
+        }
+
+        public PolymorphicMapping<S, D> build() {
+            return new PolymorphicMapping<>(holder, key, destinationType, Map.copyOf(rules));
+        }
+
+        /**
+         * ModelMapperが送信先のインスタンスを作成できるか判定する。
+         * 以下のいずれかを満たす場合に作成できるものとする(ModelMapperは引数なしのコンストラクタを非公開でも使う)。
+         * <ul>
+         *     <li>抽象クラス・インタフェースではなく、引数なしのコンストラクタを持つ</li>
+         *     <li>ModelMapper全体、またはこの組み合わせのTypeMapにプロバイダーを設定している</li>
+         *     <li>この組み合わせのTypeMap、またはこの組み合わせに対応するコンバーターで変換する</li>
+         * </ul>
+         */
+        private static boolean isInstantiable(ModelMapper mapper, Class<?> sourceType, Class<?> destinationType) {
+            if (!destinationType.isInterface() && !Modifier.isAbstract(destinationType.getModifiers())) {
+                try {
+                    destinationType.getDeclaredConstructor();
+                    return true;
+                } catch (NoSuchMethodException e) {
+                    // プロバイダー・コンバーターを確認する
+                }
+            }
+            if (mapper.getConfiguration().getProvider() != null) {
+                return true;
+            }
+            var typeMap = mapper.getTypeMap(sourceType, destinationType);
+            if (typeMap != null && (typeMap.getProvider() != null || typeMap.getConverter() != null)) {
+                return true;
+            }
+            for (var converter : mapper.getConfiguration().getConverters()) {
+                if (converter.match(sourceType, destinationType) != ConditionalConverter.MatchResult.NONE) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
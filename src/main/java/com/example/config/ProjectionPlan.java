@@ -0,0 +1,252 @@
+package com.example.config;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeMap;
+
+import java.beans.Introspector;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * インタフェース型の送信先に対する遅延評価プロジェクションの計画
+ * <p>
+ * ソースの型 -> 送信先の型(インタフェースのgetterと同名のgetterを持つクラス)のTypeMapをもとに、
+ * インタフェースのgetter(getXxx / isXxx / xxx())を送信先のプロパティに対応付ける。
+ * 各プロパティはgetterが最初に呼ばれた時点で変換してプロキシ内に保持する。
+ * <ul>
+ *     <li>TypeMapのマッピングを PropertyPlan と同じ条件で直接代入に置き換えられるプロパティは、ソースのgetterから読み込んで変換する</li>
+ *     <li>それ以外のプロパティ(コンバーター・条件・ネストしたプロパティ・DeepCopy・スキップ・対応するマッピングが無いなど)は、
+ *     最初に参照した時点で ModelMapper#map で送信先全体をマッピングし、その結果から読み込む</li>
+ * </ul>
+ * このため、プロジェクションの値は同じ型の組み合わせの ModelMapper#map の結果と同じになる。
+ */
+final class ProjectionPlan {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final Object UNRESOLVED = new Object();
+
+    /**
+     * プロジェクションのプロパティ
+     *
+     * @param name              プロパティ名
+     * @param step              ソースのgetter -> 送信先のプロパティ(直接代入できない場合は null)
+     * @param destinationGetter 送信先のgetter(ModelMapper#map の結果から読み込む場合に使う)
+     */
+    private record Property(String name, PropertyPlan.Step step, MethodHandle destinationGetter) {
+    }
+
+    private final Class<?> destinationType;
+    private final Class<?> projectionType;
+    private final Map<Method, Integer> indexes;
+    private final Property[] properties;
+    private final Object[] defaults;
+
+    private ProjectionPlan(Class<?> destinationType, Class<?> projectionType, Map<Method, Integer> indexes,
+                           Property[] properties, Object[] defaults) {
+        this.destinationType = destinationType;
+        this.projectionType = projectionType;
+        this.indexes = indexes;
+        this.properties = properties;
+        this.defaults = defaults;
+    }
+
+    /**
+     * インタフェースのgetterとTypeMapのマッピングを対応付けて計画を組み立てる。
+     *
+     * @param mapper          ModelMapper
+     * @param typeMap         ソースの型 -> 送信先の型のTypeMap(TypeMapでマッピングしない組み合わせの場合は null)
+     * @param destinationType 送信先の型
+     * @param projectionType  プロジェクションのインタフェース
+     * @return 遅延評価プロジェクションの計画
+     */
+    static ProjectionPlan compile(ModelMapper mapper, TypeMap<?, ?> typeMap, Class<?> destinationType,
+                                  Class<?> projectionType) {
+        if (!projectionType.isInterface()) {
+            throw new IllegalArgumentException("Projection type must be an interface. (" + projectionType.getName() + ")");
+        }
+        var steps = directSteps(mapper, typeMap);
+        var indexes = new HashMap<Method, Integer>();
+        var properties = new ArrayList<Property>();
+        var defaults = new ArrayList<>();
+
+        var methods = projectionType.getMethods();
+        Arrays.sort(methods, Comparator.comparing(Method::getName));
+        for (var method : methods) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())
+                    || method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+                continue;
+            }
+            var name = propertyName(method);
+            var returnType = method.getReturnType();
+            var step = steps.get(name);
+            if (step != null && wrap(step.destinationType()) != wrap(returnType)) {
+                step = null;
+            }
+
+            indexes.put(method, properties.size());
+            properties.add(new Property(name, step, destinationGetter(destinationType, method)));
+            defaults.add(returnType.isPrimitive() ? Array.get(Array.newInstance(returnType, 1), 0) : null);
+        }
+        return new ProjectionPlan(destinationType, projectionType, Map.copyOf(indexes),
+                properties.toArray(Property[]::new), defaults.toArray());
+    }
+
+    /**
+     * @return 送信先のプロパティ名 -> 直接代入に置き換えたマッピング
+     */
+    private static Map<String, PropertyPlan.Step> directSteps(ModelMapper mapper, TypeMap<?, ?> typeMap) {
+        var steps = new HashMap<String, PropertyPlan.Step>();
+        if (typeMap == null || !PropertyPlan.supportsSteps(mapper, typeMap)) {
+            return steps;
+        }
+        var sharedSteps = new HashMap<PropertyPlan.StepKey, PropertyPlan.Step>();
+        var excluded = new ArrayList<String>();
+        for (var mapping : typeMap.getMappings()) {
+            var name = mapping.getDestinationProperties().get(0).getName();
+            var step = mapping.isSkipped() ? null : PropertyPlan.toStep(mapper, mapping, sharedSteps);
+            if (step == null) {
+                excluded.add(name);
+            } else {
+                steps.put(name, step);
+            }
+        }
+        // 同じプロパティに直接代入できないマッピング(ネストしたプロパティなど)もある場合は ModelMapper#map の結果を使う
+        excluded.forEach(steps::remove);
+        return steps;
+    }
+
+    /**
+     * ソースを参照するプロジェクションを作成する。この時点ではプロパティの変換は行わない。
+     */
+    Object newProjection(ModelMapper mapper, Object source) {
+        return Proxy.newProxyInstance(
+                projectionType.getClassLoader(),
+                new Class<?>[]{projectionType, LazyProjection.class},
+                new Handler(mapper, source));
+    }
+
+    private static String propertyName(Method method) {
+        var name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return name;
+    }
+
+    private static MethodHandle destinationGetter(Class<?> destinationType, Method method) {
+        try {
+            var getter = destinationType.getMethod(method.getName());
+            if (!method.getReturnType().isAssignableFrom(getter.getReturnType())) {
+                throw new IllegalArgumentException("Return type of " + getter + " does not match " + method);
+            }
+            return MethodHandles.publicLookup().unreflect(getter).asType(GETTER_TYPE);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(destinationType.getName() + " has no property for " + method, e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Failed to access " + destinationType.getName() + "." + method.getName(), e);
+        }
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * プロキシの呼び出しを処理する。変換済みの値はプロパティごとに保持する。
+     */
+    private final class Handler implements InvocationHandler, LazyProjection {
+
+        private final ModelMapper mapper;
+        private final Object[] values;
+        private Object source;
+        private Object destination;
+
+        private Handler(ModelMapper mapper, Object source) {
+            this.mapper = mapper;
+            this.source = source;
+            this.values = new Object[properties.length];
+            Arrays.fill(values, UNRESOLVED);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            var index = indexes.get(method);
+            if (index != null) {
+                var value = resolve(index);
+                return value == null ? defaults[index] : value;
+            }
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            return switch (method.getName()) {
+                case "materialize" -> {
+                    materialize();
+                    yield null;
+                }
+                case "isMaterialized" -> isMaterialized();
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> toString();
+                default -> throw new UnsupportedOperationException(method.toString());
+            };
+        }
+
+        private synchronized Object resolve(int index) {
+            var value = values[index];
+            if (value != UNRESOLVED) {
+                return value;
+            }
+            var property = properties[index];
+            if (property.step() != null) {
+                var step = property.step();
+                value = PropertyPlan.convert(mapper, step, PropertyPlan.read(step, source));
+            } else {
+                if (destination == null) {
+                    destination = mapper.map(source, destinationType);
+                }
+                value = PropertyPlan.invoke(property.destinationGetter(), destination);
+            }
+            values[index] = value;
+            return value;
+        }
+
+        @Override
+        public synchronized void materialize() {
+            for (int i = 0; i < values.length; i++) {
+                resolve(i);
+            }
+            source = null;
+            destination = null;
+        }
+
+        @Override
+        public synchronized boolean isMaterialized() {
+            return source == null;
+        }
+
+        @Override
+        public String toString() {
+            var joiner = new StringJoiner(", ", projectionType.getSimpleName() + "(", ")");
+            for (int i = 0; i < properties.length; i++) {
+                joiner.add(properties[i].name() + "=" + resolve(i));
+            }
+            return joiner.toString();
+        }
+    }
+}
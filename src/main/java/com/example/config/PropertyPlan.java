@@ -0,0 +1,453 @@
+package com.example.config;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeMap;
+import org.modelmapper.spi.ConditionalConverter;
+import org.modelmapper.spi.ConditionalConverter.MatchResult;
+import org.modelmapper.spi.Mapping;
+import org.modelmapper.spi.PropertyInfo;
+import org.modelmapper.spi.PropertyMapping;
+import org.modelmapper.spi.ValueReader;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * TypeMapから組み立てた、getter -> setter の直接代入によるマッピング計画
+ * <p>
+ * ModelMapperのマッピング結果(TypeMap)をもとに、1階層のプロパティ同士をMethodHandleで直接コピーする。
+ * 以下のいずれかに該当する場合は直接代入できない(isDirect() == false)ため、呼び出し側はModelMapperに委譲すること。
+ * <ul>
+ *     <li>TypeMap/プロパティにコンバーター・条件・プロバイダーが設定されている</li>
+ *     <li>ネストしたプロパティ(DeepCopyの展開結果など)や、イミュータブルでない型のプロパティを含む</li>
+ *     <li>送信先に引数なしのpublicコンストラクタが無い、getter/setterがメソッドでない(Record, Map など)</li>
+ * </ul>
+ */
+final class PropertyPlan {
+
+    static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class,
+            Integer.class, Long.class, Float.class, Double.class,
+            BigDecimal.class, BigInteger.class, UUID.class);
+
+    private static final String BUILT_IN_CONVERTER_PACKAGE = "org.modelmapper.internal.converter";
+
+    /**
+     * getter -> setter の1組
+     *
+     * @param getterMethod    ソースのgetter(複数の計画間でgetterを共有する際の識別に使う)
+     * @param getter          (Object)Object に変換済みのgetter
+     * @param sourceType      ソースのプロパティ型
+     * @param destinationName 送信先のプロパティ名
+     * @param destinationType 送信先のプロパティ型
+     * @param setterMethod    送信先のsetter
+     * @param setter          (Object, Object)void に変換済みのsetter
+     */
+    record Step(Method getterMethod, MethodHandle getter, Class<?> sourceType,
+                String destinationName, Class<?> destinationType, Method setterMethod, MethodHandle setter) {
+
+        /**
+         * @return ソースと送信先の型が異なり、ModelMapperによる値の変換が必要な場合 true
+         */
+        boolean needsConversion() {
+            return wrap(sourceType) != wrap(destinationType);
+        }
+    }
+
+    /**
+     * 複数の計画間で Step を共有する際の識別(継承したgetter/setterは、サブクラスの計画でも同じ Method になる)
+     */
+    record StepKey(Method getterMethod, Class<?> sourceType, Method setterMethod, Class<?> destinationType) {
+    }
+
+    private final Class<?> sourceType;
+    private final Class<?> destinationType;
+    private final MethodHandle constructor;
+    private final List<Step> steps;
+    private final boolean skipNull;
+    private final TypeMap<?, ?> typeMap;
+    private final List<Mapping> mappings;
+
+    private PropertyPlan(Class<?> sourceType, Class<?> destinationType, MethodHandle constructor,
+                         List<Step> steps, boolean skipNull, TypeMap<?, ?> typeMap, List<Mapping> mappings) {
+        this.sourceType = sourceType;
+        this.destinationType = destinationType;
+        this.constructor = constructor;
+        this.steps = steps;
+        this.skipNull = skipNull;
+        this.typeMap = typeMap;
+        this.mappings = mappings;
+    }
+
+    /**
+     * TypeMapからマッピング計画を組み立てる。
+     *
+     * @param mapper  ModelMapper
+     * @param typeMap TypeMap
+     * @return マッピング計画(直接代入できない場合は isDirect() == false)
+     */
+    static PropertyPlan compile(ModelMapper mapper, TypeMap<?, ?> typeMap) {
+        return compile(mapper, typeMap, new HashMap<>());
+    }
+
+    /**
+     * TypeMapからマッピング計画を組み立てる。sharedSteps に同じ getter -> setter の Step があれば使い回し、無ければ追加する。
+     *
+     * @param mapper      ModelMapper
+     * @param typeMap     TypeMap
+     * @param sharedSteps 計画間で共有する Step
+     * @return マッピング計画(直接代入できない場合は isDirect() == false)
+     */
+    static PropertyPlan compile(ModelMapper mapper, TypeMap<?, ?> typeMap, Map<StepKey, Step> sharedSteps) {
+        var sourceType = typeMap.getSourceType();
+        var destinationType = typeMap.getDestinationType();
+        var config = mapper.getConfiguration();
+        var fallback = fallback(mapper, sourceType, destinationType);
+
+        if (!supportsSteps(mapper, typeMap)) {
+            return fallback;
+        }
+        var constructor = findConstructor(destinationType);
+        if (constructor == null) {
+            return fallback;
+        }
+
+        var mappings = typeMap.getMappings();
+        if (mappings.isEmpty()) {
+            // 暗黙のマッチングでプロパティが対応しなかったTypeMap(ValueReader で読み込むソースなど)
+            return fallback;
+        }
+        var steps = new ArrayList<Step>();
+        for (Mapping mapping : mappings) {
+            if (mapping.isSkipped()) {
+                continue;
+            }
+            var step = toStep(mapper, mapping, sharedSteps);
+            if (step == null) {
+                return fallback;
+            }
+            steps.add(step);
+        }
+        return new PropertyPlan(sourceType, destinationType, constructor, List.copyOf(steps), config.isSkipNullEnabled(),
+                typeMap, List.copyOf(mappings));
+    }
+
+    /**
+     * 常にModelMapperに委譲するマッピング計画
+     */
+    static PropertyPlan fallback(ModelMapper mapper, Class<?> sourceType, Class<?> destinationType) {
+        return new PropertyPlan(sourceType, destinationType, null, List.of(),
+                mapper.getConfiguration().isSkipNullEnabled(), null, List.of());
+    }
+
+    /**
+     * ModelMapper#map がこの型の組み合わせを TypeMap でマッピングするか判定する。
+     * コンバーターが対応する組み合わせや値型は TypeMap を使わずに変換するため、TypeMap を作成すると結果が変わってしまう。
+     * 判定順序は MappingEngineImpl#map と同じ(作成済みの TypeMap -> コンバーター -> 値型)。
+     */
+    static boolean usesTypeMap(ModelMapper mapper, Class<?> sourceType, Class<?> destinationType) {
+        if (mapper.getTypeMap(sourceType, destinationType) != null) {
+            return true;
+        }
+        for (var converter : mapper.getConfiguration().getConverters()) {
+            if (converter.match(sourceType, destinationType) != MatchResult.NONE) {
+                return false;
+            }
+        }
+        return !isImmutable(sourceType) && !isImmutable(destinationType);
+    }
+
+    /**
+     * ソースの型を ValueReader(Map・Record など)で読み込むか判定する。
+     * ValueReader で読み込むソースは、マッピングするインスタンスの内容(Map のキーなど)から TypeMap を作成するため、
+     * 型だけで作成した TypeMap(ModelMapper#typeMap)はプロパティが対応せず、計画を組み立てられない。
+     * 型引数を解決できない ValueReader は、全ての型を読み込むとみなす。
+     */
+    static boolean readsWithValueReader(ModelMapper mapper, Class<?> sourceType) {
+        for (var reader : mapper.getConfiguration().getValueReaders()) {
+            var supported = valueReaderType(reader.getClass());
+            if (supported == null || supported.isAssignableFrom(sourceType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> valueReaderType(Class<?> type) {
+        for (var current = type; current != null; current = current.getSuperclass()) {
+            for (var genericInterface : current.getGenericInterfaces()) {
+                if (genericInterface instanceof ParameterizedType parameterized
+                        && parameterized.getRawType() == ValueReader.class) {
+                    var argument = parameterized.getActualTypeArguments()[0];
+                    if (argument instanceof Class<?> c) {
+                        return c;
+                    }
+                    if (argument instanceof ParameterizedType p && p.getRawType() instanceof Class<?> c) {
+                        return c;
+                    }
+                    return null;
+                }
+                if (genericInterface instanceof Class<?> c && ValueReader.class.isAssignableFrom(c)) {
+                    return valueReaderType(c);
+                }
+            }
+        }
+        return null;
+    }
+
+    Class<?> sourceType() {
+        return sourceType;
+    }
+
+    Class<?> destinationType() {
+        return destinationType;
+    }
+
+    List<Step> steps() {
+        return steps;
+    }
+
+    /**
+     * 計画を組み立てた後に、元のTypeMapのマッピングやコンバーターなどが変更されていないことを確認する。
+     * ModelMapperに委譲する計画は常に最新の TypeMap を使うため確認しない。
+     * TypeMap#getMappings はTypeMapのロックを取るため、1件ごとのマッピングでは呼び出さないこと。
+     *
+     * @return この計画
+     * @throws IllegalStateException TypeMapが変更されている場合
+     */
+    PropertyPlan verify() {
+        if (typeMap == null) {
+            return this;
+        }
+        var current = typeMap.getMappings();
+        var modified = hasCustomization(typeMap) || current.size() != mappings.size();
+        for (int i = 0; !modified && i < current.size(); i++) {
+            modified = current.get(i) != mappings.get(i);
+        }
+        if (modified) {
+            throw new IllegalStateException("TypeMap was modified after ModelMapperHolder compiled a plan for it. "
+                    + "Use ModelMapperHolder#configureTypeMap to modify it. ("
+                    + sourceType.getName() + " -> " + destinationType.getName() + ")");
+        }
+        return this;
+    }
+
+    /**
+     * @return 直接代入でマッピングできる場合 true
+     */
+    boolean isDirect() {
+        return constructor != null;
+    }
+
+    /**
+     * ソースを新しい送信先オブジェクトにマッピングする。直接代入できない場合はModelMapperに委譲する。
+     */
+    Object map(ModelMapper mapper, Object source) {
+        if (!isDirect()) {
+            return mapper.map(source, destinationType);
+        }
+        var destination = newDestination();
+        for (var step : steps) {
+            write(step, destination, convert(mapper, step, read(step, source)));
+        }
+        return destination;
+    }
+
+    Object newDestination() {
+        return newInstance(constructor, destinationType);
+    }
+
+    /**
+     * @param constructor findConstructor で取得したコンストラクタ
+     * @param type        作成する型(例外のメッセージに使う)
+     * @return 作成したインスタンス
+     */
+    static Object newInstance(MethodHandle constructor, Class<?> type) {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw rethrow("Failed to instantiate " + type.getName(), e);
+        }
+    }
+
+    static Object read(Step step, Object source) {
+        try {
+            return (Object) step.getter().invokeExact(source);
+        } catch (Throwable e) {
+            throw rethrow("Failed to get " + step.getterMethod(), e);
+        }
+    }
+
+    static Object invoke(MethodHandle getter, Object source) {
+        try {
+            return (Object) getter.invokeExact(source);
+        } catch (Throwable e) {
+            throw rethrow("Failed to get property of " + source.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * 送信先の型に合わせて値を変換する。型が同じ(イミュータブル)場合はそのまま返す。
+     */
+    static Object convert(ModelMapper mapper, Step step, Object value) {
+        if (value == null || !step.needsConversion()) {
+            return value;
+        }
+        return mapper.map(value, step.destinationType());
+    }
+
+    void write(Step step, Object destination, Object value) {
+        if (value == null && (skipNull || step.destinationType().isPrimitive())) {
+            return;
+        }
+        invokeSetter(step.setter(), destination, value, step.destinationName());
+    }
+
+    /**
+     * @param setter       SETTER_TYPE に変換済みのsetter
+     * @param destination  送信先
+     * @param value        値
+     * @param propertyName 送信先のプロパティ名(例外のメッセージに使う)
+     */
+    static void invokeSetter(MethodHandle setter, Object destination, Object value, String propertyName) {
+        try {
+            setter.invokeExact(destination, value);
+        } catch (Throwable e) {
+            throw rethrow("Failed to set " + destination.getClass().getName() + "." + propertyName, e);
+        }
+    }
+
+    /**
+     * @return TypeMap・設定にコンバーター・条件・プロバイダーが無く、マッピングを Step に置き換えられる場合 true
+     */
+    static boolean supportsSteps(ModelMapper mapper, TypeMap<?, ?> typeMap) {
+        var config = mapper.getConfiguration();
+        return !hasCustomization(typeMap) && config.getProvider() == null && config.getPropertyCondition() == null;
+    }
+
+    private static boolean hasCustomization(TypeMap<?, ?> typeMap) {
+        return typeMap.getConverter() != null
+                || typeMap.getPreConverter() != null
+                || typeMap.getPostConverter() != null
+                || typeMap.getProvider() != null
+                || typeMap.getCondition() != null
+                || typeMap.getPropertyConverter() != null
+                || typeMap.getPropertyCondition() != null
+                || typeMap.getPropertyProvider() != null;
+    }
+
+    /**
+     * @return 1階層のプロパティ同士の直接代入に置き換えたマッピング。置き換えられない場合は null
+     */
+    static Step toStep(ModelMapper mapper, Mapping mapping, Map<StepKey, Step> sharedSteps) {
+        if (!(mapping instanceof PropertyMapping propertyMapping)
+                || mapping.getConverter() != null
+                || mapping.getCondition() != null
+                || mapping.getProvider() != null
+                || propertyMapping.getSourceProperties().size() != 1
+                || mapping.getDestinationProperties().size() != 1) {
+            return null;
+        }
+        PropertyInfo source = propertyMapping.getLastSourceProperty();
+        PropertyInfo destination = mapping.getLastDestinationProperty();
+        if (!(source.getMember() instanceof Method getter) || !(destination.getMember() instanceof Method setter)) {
+            return null;
+        }
+        var key = new StepKey(getter, source.getType(), setter, destination.getType());
+        var shared = sharedSteps.get(key);
+        if (shared != null) {
+            return shared;
+        }
+        if (!isImmutable(source.getType()) || !isImmutable(destination.getType())
+                || !isBuiltInConversion(mapper, source.getType(), destination.getType())) {
+            return null;
+        }
+        try {
+            var lookup = MethodHandles.publicLookup();
+            var step = new Step(getter, lookup.unreflect(getter).asType(GETTER_TYPE), source.getType(),
+                    destination.getName(), destination.getType(), setter, lookup.unreflect(setter).asType(SETTER_TYPE));
+            sharedSteps.putIfAbsent(key, step);
+            return step;
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return 引数なしのpublicコンストラクタ(CONSTRUCTOR_TYPE に変換済み)。無い場合は null
+     */
+    static MethodHandle findConstructor(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class))
+                    .asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 値をそのまま共有しても問題ない型か判定する。
+     */
+    static boolean isImmutable(Class<?> type) {
+        return type.isPrimitive()
+                || type.isEnum()
+                || IMMUTABLE_TYPES.contains(type)
+                || (type.getPackageName().equals("java.time") && Modifier.isFinal(type.getModifiers()));
+    }
+
+    /**
+     * ModelMapperが選択するコンバーターが標準のもの(カスタムコンバーターで上書きされていない)か判定する。
+     * 判定順序は ConverterStore#getFirstSupported と同じ。
+     */
+    private static boolean isBuiltInConversion(ModelMapper mapper, Class<?> sourceType, Class<?> destinationType) {
+        ConditionalConverter<?, ?> partial = null;
+        for (var converter : mapper.getConfiguration().getConverters()) {
+            var result = converter.match(sourceType, destinationType);
+            if (result == MatchResult.FULL) {
+                return isBuiltIn(converter);
+            }
+            if (partial == null && result == MatchResult.PARTIAL) {
+                partial = converter;
+            }
+        }
+        return partial != null && isBuiltIn(partial);
+    }
+
+    private static boolean isBuiltIn(ConditionalConverter<?, ?> converter) {
+        return converter.getClass().getPackageName().equals(BUILT_IN_CONVERTER_PACKAGE);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    static RuntimeException rethrow(String message, Throwable e) {
+        if (e instanceof RuntimeException re) {
+            return re;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(message, e);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.config;
+
+import org.modelmapper.ModelMapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 区切り文字形式のファイルの見出し行から組み立てた、列 -> setter のマッピング計画
+ * <p>
+ * 見出しと同じ名前のプロパティのsetter(setXxx、または Builder 形式の xxx)に列の値を代入する。
+ * String のプロパティにはそのまま代入し、それ以外の型はModelMapperで変換する(コンバーターも適用される)。
+ * String 以外のプロパティでは空文字を null とみなす。対応するプロパティの無い列は無視する。
+ * 送信先に引数なしのpublicコンストラクタが無い場合(Record など)は、行を Map にしてModelMapperに委譲する。
+ * <p>
+ * 列とプロパティの対応付けは見出しとプロパティ名の完全一致(前後の空白・BOMを除く)のみで行う。
+ * ModelMapperのマッチング戦略(名前のトークン分割など)や、送信先の型のTypeMap(addMapping・スキップ・
+ * コンバーターなど configureTypeMap で設定したもの)は使わない。これらを適用する場合は、行を Map にして
+ * ModelMapper#map でマッピングすること。
+ */
+final class RowPlan {
+
+    /** UTF-8 などのファイル先頭のBOM(デコード後も見出しの先頭に残る) */
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * 列 -> setter の1組
+     *
+     * @param index  列の位置
+     * @param name   見出し(プロパティ名)
+     * @param type   プロパティの型(総称型を含む)
+     * @param setter (Object, Object)void に変換済みのsetter
+     */
+    private record Column(int index, String name, Type type, MethodHandle setter) {
+
+        boolean isString() {
+            return type == String.class;
+        }
+
+        boolean isPrimitive() {
+            return type instanceof Class<?> c && c.isPrimitive();
+        }
+    }
+
+    private final Class<?> destinationType;
+    private final String[] header;
+    private final MethodHandle constructor;
+    private final List<Column> columns;
+    private final boolean skipNull;
+
+    private RowPlan(Class<?> destinationType, String[] header, MethodHandle constructor, List<Column> columns,
+                    boolean skipNull) {
+        this.destinationType = destinationType;
+        this.header = header;
+        this.constructor = constructor;
+        this.columns = columns;
+        this.skipNull = skipNull;
+    }
+
+    /**
+     * @param mapper          変換に使うModelMapper
+     * @param header          見出し行
+     * @param destinationType 送信先の型
+     * @return マッピング計画
+     */
+    static RowPlan compile(ModelMapper mapper, String[] header, Class<?> destinationType) {
+        var names = new String[header.length];
+        for (int i = 0; i < header.length; i++) {
+            names[i] = header[i].strip();
+        }
+        if (names.length > 0 && !names[0].isEmpty() && names[0].charAt(0) == BOM) {
+            names[0] = names[0].substring(1).strip();
+        }
+        var skipNull = mapper.getConfiguration().isSkipNullEnabled();
+        var constructor = PropertyPlan.findConstructor(destinationType);
+        if (constructor == null) {
+            return new RowPlan(destinationType, names, null, List.of(), skipNull);
+        }
+
+        var setters = findSetters(destinationType);
+        var columns = new ArrayList<Column>();
+        for (int i = 0; i < names.length; i++) {
+            var setter = setters.get(names[i]);
+            if (setter == null) {
+                continue;
+            }
+            try {
+                var handle = MethodHandles.publicLookup().unreflect(setter).asType(PropertyPlan.SETTER_TYPE);
+                columns.add(new Column(i, names[i], setter.getGenericParameterTypes()[0], handle));
+            } catch (IllegalAccessException e) {
+                // アクセスできないsetterの列は無視する
+            }
+        }
+        return new RowPlan(destinationType, names, constructor, List.copyOf(columns), skipNull);
+    }
+
+    /**
+     * 1行を新しい送信先オブジェクトにマッピングする。
+     *
+     * @param mapper 変換に使うModelMapper
+     * @param row    行(列の値)
+     * @return マッピング結果
+     */
+    Object map(ModelMapper mapper, String[] row) {
+        if (constructor == null) {
+            return mapper.map(toMap(row), destinationType);
+        }
+        var destination = PropertyPlan.newInstance(constructor, destinationType);
+        for (var column : columns) {
+            var value = column.index() < row.length ? row[column.index()] : null;
+            write(column, destination, convert(mapper, column, value));
+        }
+        return destination;
+    }
+
+    private static Object convert(ModelMapper mapper, Column column, String value) {
+        if (value == null || column.isString()) {
+            return value;
+        }
+        if (value.isEmpty()) {
+            return null;
+        }
+        return mapper.map(value, column.type());
+    }
+
+    private void write(Column column, Object destination, Object value) {
+        if (value == null && (skipNull || column.isPrimitive())) {
+            return;
+        }
+        PropertyPlan.invokeSetter(column.setter(), destination, value, column.name());
+    }
+
+    private Map<String, String> toMap(String[] row) {
+        var map = new LinkedHashMap<String, String>();
+        for (int i = 0; i < header.length && i < row.length; i++) {
+            map.put(header[i], row[i]);
+        }
+        return map;
+    }
+
+    /**
+     * プロパティ名 -> setter。setXxx を Builder 形式の xxx より優先する。
+     * setXxx は戻り値が void または自身の型のもの、Builder 形式は戻り値が自身の型のもの(equals・canEqual などを除く)に限る。
+     */
+    private static Map<String, Method> findSetters(Class<?> type) {
+        var setters = new HashMap<String, Method>();
+        var fluent = new HashMap<String, Method>();
+        for (var method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())
+                    || method.getParameterCount() != 1
+                    || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            var name = method.getName();
+            var returnsSelf = type.isAssignableFrom(method.getReturnType());
+            if (name.length() > 3 && name.startsWith("set")) {
+                if (returnsSelf || method.getReturnType() == void.class) {
+                    setters.putIfAbsent(Character.toLowerCase(name.charAt(3)) + name.substring(4), method);
+                }
+            } else if (returnsSelf) {
+                fluent.putIfAbsent(name, method);
+            }
+        }
+        fluent.forEach(setters::putIfAbsent);
+        return setters;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.config;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 作成に時間のかかる値(TypeMap・マッピング計画)のキャッシュ
+ * <p>
+ * 同じキーの値は1回だけ作成する(single-flight)。作成中に同じキーを要求したスレッドは、作成中の処理の完了を待ち、
+ * 同じ結果(または例外)を受け取る。作成済みの値の参照はロックを取らない。作成に失敗した場合はキャッシュせず、次の要求で作成し直す。
+ * ConcurrentHashMap#computeIfAbsent と異なり、作成中の処理が同じハッシュの区画の他のキーの参照・作成を待たせることはない。
+ *
+ * @param <K> キー
+ * @param <V> 値
+ */
+final class SingleFlightCache<K, V> {
+
+    /**
+     * 作成中の処理
+     *
+     * @param owner  作成しているスレッド
+     * @param result 作成結果
+     */
+    private record Flight<V>(Thread owner, CompletableFuture<V> result) {
+    }
+
+    private final Map<K, V> values = new ConcurrentHashMap<>();
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder creationCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+
+    /**
+     * @param key    キー
+     * @param loader 値を作成する関数(null を返さないこと)
+     * @return 作成済みの値、または作成した値
+     */
+    V get(K key, Function<? super K, ? extends V> loader) {
+        var value = values.get(key);
+        if (value != null) {
+            return value;
+        }
+        var flight = new Flight<V>(Thread.currentThread(), new CompletableFuture<>());
+        var inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            return await(key, inFlight);
+        }
+        try {
+            // 参照してから登録するまでの間に、他のスレッドの作成が完了している場合がある
+            value = values.get(key);
+            if (value == null) {
+                value = loader.apply(key);
+                creationCount.increment();
+                // 作成中の処理を削除する前に登録し、以降の要求が必ずどちらかを参照できるようにする
+                values.put(key, value);
+            }
+            flight.result().complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private V await(K key, Flight<V> flight) {
+        if (flight.owner() == Thread.currentThread()) {
+            throw new IllegalStateException("Recursive creation. (" + key + ")");
+        }
+        waitCount.increment();
+        try {
+            return flight.result().join();
+        } catch (CompletionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Failed to create. (" + key + ")", cause);
+        }
+    }
+
+    /**
+     * 作成済みの値を削除する。削除したキーは次の要求で作成し直す。作成中の値は削除しない。
+     *
+     * @param filter 削除するキーの条件
+     */
+    void invalidate(Predicate<? super K> filter) {
+        values.keySet().removeIf(filter);
+    }
+
+    /**
+     * @return 作成済みの件数
+     */
+    int size() {
+        return values.size();
+    }
+
+    /**
+     * @return 値を作成した回数
+     */
+    long creationCount() {
+        return creationCount.sum();
+    }
+
+    /**
+     * @return 他のスレッドの作成の完了を待った回数
+     */
+    long waitCount() {
+        return waitCount.sum();
+    }
+}
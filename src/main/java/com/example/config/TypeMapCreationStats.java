@@ -0,0 +1,11 @@
+package com.example.config;
+
+/**
+ * ModelMapperHolder による TypeMap の作成の統計情報
+ *
+ * @param creationCount TypeMap を作成(暗黙のマッチングを実行)した回数
+ * @param waitCount     他のスレッドによる同じ型の組み合わせの作成の完了を待った回数
+ * @param typeMapCount  作成済みの TypeMap の件数
+ */
+public record TypeMapCreationStats(long creationCount, long waitCount, int typeMapCount) {
+}
@@ -0,0 +1,17 @@
+package com.example.config;
+
+/**
+ * TypeMap のヒープ使用量
+ *
+ * @param name            TypeMap の名前(ソースの型 -> 送信先の型)
+ * @param mappingCount    マッピング(プロパティの組み合わせ)の件数
+ * @param estimatedBytes  TypeMap から到達できるオブジェクトの見積もりサイズ(共有の Configuration, MappingEngine などは含まない)
+ */
+public record TypeMapFootprint(String name, int mappingCount, long estimatedBytes) {
+
+    @Override
+    public String toString() {
+        return name + " (mappings=" + mappingCount + ", estimatedBytes=" + estimatedBytes + ")";
+    }
+
+}
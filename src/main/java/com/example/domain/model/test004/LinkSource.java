@@ -0,0 +1,10 @@
+package com.example.domain.model.test004;
+
+import lombok.Data;
+
+@Data
+public class LinkSource {
+    private String URL;
+    private String title;
+    private String description;
+}
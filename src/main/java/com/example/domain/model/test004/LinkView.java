@@ -0,0 +1,11 @@
+package com.example.domain.model.test004;
+
+public interface LinkView {
+
+    String getURL();
+
+    String getTitle();
+
+    String getLabel();
+
+}
@@ -0,0 +1,29 @@
+package com.example.domain.model.test004;
+
+import com.example.domain.model.test001.Person;
+import lombok.Data;
+
+@Data
+public class WideTarget {
+    private String field01;
+    private String field02;
+    private String field03;
+    private String field04;
+    private String field05;
+    private String field06;
+    private String field07;
+    private String field08;
+    private String field09;
+    private String field10;
+    private String field11;
+    private String field12;
+    private String field13;
+    private String field14;
+    private String field15;
+    private String field16;
+    private String field17;
+    private String field18;
+    private String field19;
+    private String field20;
+    private Person person;
+}
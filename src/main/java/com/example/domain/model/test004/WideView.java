@@ -0,0 +1,48 @@
+package com.example.domain.model.test004;
+
+import com.example.domain.model.test001.Person;
+
+public interface WideView {
+
+    String getField01();
+
+    String getField02();
+
+    String getField03();
+
+    String getField04();
+
+    String getField05();
+
+    String getField06();
+
+    String getField07();
+
+    String getField08();
+
+    String getField09();
+
+    String getField10();
+
+    String getField11();
+
+    String getField12();
+
+    String getField13();
+
+    String getField14();
+
+    String getField15();
+
+    String getField16();
+
+    String getField17();
+
+    String getField18();
+
+    String getField19();
+
+    String getField20();
+
+    Person getPerson();
+}
@@ -0,0 +1,11 @@
+package com.example.domain.model.test005;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class PersonValue {
+    private String firstName;
+    private String lastName;
+}
@@ -0,0 +1,9 @@
+package com.example.domain.model.test008;
+
+import lombok.Data;
+
+@Data
+public abstract class BaseTarget {
+    private String firstName;
+    private String lastName;
+}
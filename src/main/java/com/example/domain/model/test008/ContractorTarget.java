@@ -0,0 +1,14 @@
+package com.example.domain.model.test008;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@RequiredArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ContractorTarget extends BaseTarget {
+    private final String agency;
+}
@@ -0,0 +1,12 @@
+package com.example.domain.model.test008;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class CustomerTarget extends BaseTarget {
+    private String companyAddress;
+}
@@ -0,0 +1,226 @@
+package com.example.domain.model.test008;
+
+import java.util.List;
+
+/**
+ * 多数のサブクラスを持つ階層(ポリモーフィックなマッピングの計測用)
+ */
+public final class Variants {
+
+    public static final List<Class<? extends BaseSource>> SOURCES = List.of(
+            Source01.class, Source02.class, Source03.class, Source04.class,
+            Source05.class, Source06.class, Source07.class, Source08.class,
+            Source09.class, Source10.class, Source11.class, Source12.class,
+            Source13.class, Source14.class, Source15.class, Source16.class,
+            Source17.class, Source18.class, Source19.class, Source20.class,
+            Source21.class, Source22.class, Source23.class, Source24.class,
+            Source25.class, Source26.class, Source27.class, Source28.class,
+            Source29.class, Source30.class, Source31.class, Source32.class
+    );
+
+    public static final List<Class<? extends BaseTarget>> TARGETS = List.of(
+            Target01.class, Target02.class, Target03.class, Target04.class,
+            Target05.class, Target06.class, Target07.class, Target08.class,
+            Target09.class, Target10.class, Target11.class, Target12.class,
+            Target13.class, Target14.class, Target15.class, Target16.class,
+            Target17.class, Target18.class, Target19.class, Target20.class,
+            Target21.class, Target22.class, Target23.class, Target24.class,
+            Target25.class, Target26.class, Target27.class, Target28.class,
+            Target29.class, Target30.class, Target31.class, Target32.class
+    );
+
+    private Variants() {
+    }
+
+    public static class Source01 extends BaseSource {
+    }
+
+    public static class Source02 extends BaseSource {
+    }
+
+    public static class Source03 extends BaseSource {
+    }
+
+    public static class Source04 extends BaseSource {
+    }
+
+    public static class Source05 extends BaseSource {
+    }
+
+    public static class Source06 extends BaseSource {
+    }
+
+    public static class Source07 extends BaseSource {
+    }
+
+    public static class Source08 extends BaseSource {
+    }
+
+    public static class Source09 extends BaseSource {
+    }
+
+    public static class Source10 extends BaseSource {
+    }
+
+    public static class Source11 extends BaseSource {
+    }
+
+    public static class Source12 extends BaseSource {
+    }
+
+    public static class Source13 extends BaseSource {
+    }
+
+    public static class Source14 extends BaseSource {
+    }
+
+    public static class Source15 extends BaseSource {
+    }
+
+    public static class Source16 extends BaseSource {
+    }
+
+    public static class Source17 extends BaseSource {
+    }
+
+    public static class Source18 extends BaseSource {
+    }
+
+    public static class Source19 extends BaseSource {
+    }
+
+    public static class Source20 extends BaseSource {
+    }
+
+    public static class Source21 extends BaseSource {
+    }
+
+    public static class Source22 extends BaseSource {
+    }
+
+    public static class Source23 extends BaseSource {
+    }
+
+    public static class Source24 extends BaseSource {
+    }
+
+    public static class Source25 extends BaseSource {
+    }
+
+    public static class Source26 extends BaseSource {
+    }
+
+    public static class Source27 extends BaseSource {
+    }
+
+    public static class Source28 extends BaseSource {
+    }
+
+    public static class Source29 extends BaseSource {
+    }
+
+    public static class Source30 extends BaseSource {
+    }
+
+    public static class Source31 extends BaseSource {
+    }
+
+    public static class Source32 extends BaseSource {
+    }
+
+    public static class Target01 extends BaseTarget {
+    }
+
+    public static class Target02 extends BaseTarget {
+    }
+
+    public static class Target03 extends BaseTarget {
+    }
+
+    public static class Target04 extends BaseTarget {
+    }
+
+    public static class Target05 extends BaseTarget {
+    }
+
+    public static class Target06 extends BaseTarget {
+    }
+
+    public static class Target07 extends BaseTarget {
+    }
+
+    public static class Target08 extends BaseTarget {
+    }
+
+    public static class Target09 extends BaseTarget {
+    }
+
+    public static class Target10 extends BaseTarget {
+    }
+
+    public static class Target11 extends BaseTarget {
+    }
+
+    public static class Target12 extends BaseTarget {
+    }
+
+    public static class Target13 extends BaseTarget {
+    }
+
+    public static class Target14 extends BaseTarget {
+    }
+
+    public static class Target15 extends BaseTarget {
+    }
+
+    public static class Target16 extends BaseTarget {
+    }
+
+    public static class Target17 extends BaseTarget {
+    }
+
+    public static class Target18 extends BaseTarget {
+    }
+
+    public static class Target19 extends BaseTarget {
+    }
+
+    public static class Target20 extends BaseTarget {
+    }
+
+    public static class Target21 extends BaseTarget {
+    }
+
+    public static class Target22 extends BaseTarget {
+    }
+
+    public static class Target23 extends BaseTarget {
+    }
+
+    public static class Target24 extends BaseTarget {
+    }
+
+    public static class Target25 extends BaseTarget {
+    }
+
+    public static class Target26 extends BaseTarget {
+    }
+
+    public static class Target27 extends BaseTarget {
+    }
+
+    public static class Target28 extends BaseTarget {
+    }
+
+    public static class Target29 extends BaseTarget {
+    }
+
+    public static class Target30 extends BaseTarget {
+    }
+
+    public static class Target31 extends BaseTarget {
+    }
+
+    public static class Target32 extends BaseTarget {
+    }
+}
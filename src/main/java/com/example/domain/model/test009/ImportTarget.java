@@ -0,0 +1,16 @@
+package com.example.domain.model.test009;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Set;
+
+@Data
+public class ImportTarget {
+    private String firstName;
+    private String lastName;
+    private String homeAddress;
+    private Integer age;
+    private List<String> tags;
+    private Set<String> roles;
+}
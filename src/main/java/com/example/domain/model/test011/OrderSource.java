@@ -0,0 +1,16 @@
+package com.example.domain.model.test011;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class OrderSource {
+    private String customerName;
+    private String region;
+    private int quantity;
+    private Long unitPrice;
+    private Double discountRate;
+    private boolean shipped;
+    private BigDecimal amount;
+}
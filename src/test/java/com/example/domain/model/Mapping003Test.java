@@ -0,0 +1,196 @@
+package com.example.domain.model;
+
+import com.example.config.ModelMapperHolder;
+import com.example.domain.model.test001.Person;
+import com.example.domain.model.test001.Source;
+import com.example.domain.model.test001.Source2;
+import com.example.domain.model.test001.Source3;
+import com.example.domain.model.test001.Target;
+import com.example.domain.model.test001.Target2;
+import com.example.domain.model.test001.Target3;
+import com.example.domain.model.test002.SourceRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static com.example.config.ModelMapperConfig.MODEL_MAPPER;
+import static com.example.config.ModelMapperConfig.SKIP_NULL_MODEL_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class Mapping003Test {
+
+    private static final int ITERATIONS = 100_000;
+
+    private final ModelMapperHolder modelMapperHolder;
+
+    @Autowired
+    public Mapping003Test(ModelMapperHolder modelMapperHolder) {
+        this.modelMapperHolder = modelMapperHolder;
+    }
+
+    private Source2 createSource() {
+        var source = new Source2();
+        source.setFirstName("firstName_xxx");
+        source.setLastName("lastName_xxx");
+        source.setHomeAddress("homeAddress_xxx");
+        source.setCompanyAddress("companyAddress_xxx");
+        return source;
+    }
+
+    @Test
+    @DisplayName("1つのソースを複数の送信先にマッピング(map()を個別に呼んだ結果と同じ)")
+    void test001() {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        var source = createSource();
+
+        var actual = modelMapperHolder.mapToEach(MODEL_MAPPER, source, Target2.class, Target.class);
+
+        assertThat(actual.size()).isEqualTo(2);
+        assertThat(actual.get(Target2.class)).isEqualTo(modelMapper.map(source, Target2.class));
+        assertThat(actual.get(Target.class)).isEqualTo(modelMapper.map(source, Target.class));
+
+        System.out.println(actual.get(Target2.class));
+        System.out.println(actual.get(Target.class));
+
+        // 結果
+        // Target2(firstName=firstName_xxx, fullName=null, address=null, company=null, homeAddress=homeAddress_xxx, companyAddress=companyAddress_xxx, firstSecond=null)
+        // Target(firstName=firstName_xxx, fullName=null, address=null, company=null)
+    }
+
+    @Test
+    @DisplayName("直接代入できない送信先(DeepCopy)はModelMapperでマッピングされる")
+    void test002() {
+
+        var source = new Source3();
+        source.setPerson(new Person("abc", "efg"));
+
+        var actual = modelMapperHolder.mapToEach(MODEL_MAPPER, source, Target3.class).get(Target3.class);
+        source.getPerson().setFirstName("firstName_changed");
+
+        assertThat(actual.getPerson()).isEqualTo(new Person("abc", "efg"));
+    }
+
+    @Test
+    @DisplayName("値型・コンバーターで変換する送信先は、TypeMapを作成せずにModelMapperで変換される")
+    void test004() {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        var typeMapCount = modelMapper.getTypeMaps().size();
+
+        var actual = modelMapperHolder.mapToEach(MODEL_MAPPER, "1", String.class, Long.class);
+        assertThat(actual.get(String.class)).isEqualTo("1");
+        assertThat(actual.get(Long.class)).isEqualTo(1L);
+        assertThat(modelMapperHolder.mapToEach(MODEL_MAPPER, "a,b", List.class).get(List.class))
+                .isEqualTo(List.of("a", "b")); // stringToList
+
+        // 共有しているModelMapperの結果も変わらない
+        assertThat(modelMapper.getTypeMaps()).hasSize(typeMapCount);
+        assertThat(modelMapper.map("x", String.class)).isEqualTo("x");
+        assertThat(modelMapper.map(1, Long.class)).isEqualTo(1L);
+    }
+
+    /**
+     * -Dbenchmark=true で実行する。
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("map()を個別に呼ぶ場合との処理時間の比較")
+    void test003() {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        var source = createSource();
+
+        // ウォームアップ
+        for (int i = 0; i < ITERATIONS; i++) {
+            modelMapper.map(source, Target2.class);
+            modelMapper.map(source, Target.class);
+            modelMapperHolder.mapToEach(MODEL_MAPPER, source, Target2.class, Target.class);
+        }
+
+        var start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            modelMapper.map(source, Target2.class);
+            modelMapper.map(source, Target.class);
+        }
+        var sequential = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            modelMapperHolder.mapToEach(MODEL_MAPPER, source, Target2.class, Target.class);
+        }
+        var fanOut = System.nanoTime() - start;
+
+        System.out.println("map() x 2   : " + sequential / 1_000_000 + " ms");
+        System.out.println("mapToEach() : " + fanOut / 1_000_000 + " ms");
+
+        // 結果(参考値)
+        // map() x 2   : 1100 ms
+        // mapToEach() : 90 ms
+    }
+
+    @Test
+    @DisplayName("使い始めた後のTypeMapの変更はconfigureTypeMapで行う(直接変更した場合、コレクション単位のマッピングは例外)")
+    void test005() {
+
+        var modelMapper = modelMapperHolder.get(SKIP_NULL_MODEL_MAPPER);
+        var source = new Source();
+        source.setFirstName("firstName_xxx");
+        source.setLastName("lastName_xxx");
+        source.setCompanyAddress("companyAddress_xxx");
+
+        assertThat(modelMapperHolder.mapToEach(SKIP_NULL_MODEL_MAPPER, source, Target.class).get(Target.class)
+                .getFullName()).isNull();
+
+        modelMapperHolder.configureTypeMap(SKIP_NULL_MODEL_MAPPER, Source.class, Target.class,
+                typeMap -> typeMap.addMapping(Source::getCompanyAddress, Target::setFullName));
+
+        assertThat(modelMapper.map(source, Target.class).getFullName()).isEqualTo("companyAddress_xxx");
+        assertThat(modelMapperHolder.map(SKIP_NULL_MODEL_MAPPER, source, Target.class).getFullName())
+                .isEqualTo("companyAddress_xxx");
+        assertThat(modelMapperHolder.mapToEach(SKIP_NULL_MODEL_MAPPER, source, Target.class).get(Target.class)
+                .getFullName()).isEqualTo("companyAddress_xxx");
+        assertThat(modelMapperHolder.mapList(SKIP_NULL_MODEL_MAPPER, List.of(source), Target.class))
+                .extracting(Target::getFullName).containsExactly("companyAddress_xxx");
+
+        // ModelMapperから直接変更した場合
+        modelMapper.getTypeMap(Source.class, Target.class).addMapping(Source::getLastName, Target::setCompany);
+        assertThatThrownBy(() -> modelMapperHolder.mapList(SKIP_NULL_MODEL_MAPPER, List.of(source), Target.class))
+                .isInstanceOf(IllegalStateException.class);
+
+        // configureTypeMap で作成済みの計画を破棄すると、変更後のTypeMapでマッピングされる
+        modelMapperHolder.configureTypeMap(SKIP_NULL_MODEL_MAPPER, Source.class, Target.class, typeMap -> {
+        });
+        assertThat(modelMapperHolder.mapList(SKIP_NULL_MODEL_MAPPER, List.of(source), Target.class))
+                .containsExactly(modelMapper.map(source, Target.class));
+    }
+
+    @Test
+    @DisplayName("ValueReaderで読み込むソース(Map・Record)は、ModelMapperでマッピングされる(TypeMapを先に作成しない)")
+    void test006() {
+
+        var modelMapper = modelMapperHolder.get(SKIP_NULL_MODEL_MAPPER);
+        var row = new HashMap<String, Object>();
+        row.put("firstName", "firstName_xxx");
+        row.put("lastName", "lastName_xxx");
+        var record = new SourceRecord("firstName_yyy", "lastName_yyy", "fullFullName_yyy");
+
+        // ModelMapper#map より先に holder でマッピングする
+        assertThat(modelMapperHolder.map(SKIP_NULL_MODEL_MAPPER, row, Person.class))
+                .isEqualTo(new Person("firstName_xxx", "lastName_xxx"));
+        assertThat(modelMapperHolder.map(SKIP_NULL_MODEL_MAPPER, record, Person.class))
+                .isEqualTo(new Person("firstName_yyy", "lastName_yyy"));
+        assertThat(modelMapperHolder.mapList(SKIP_NULL_MODEL_MAPPER, List.of(row), Person.class))
+                .containsExactly(modelMapper.map(row, Person.class));
+        assertThat(modelMapperHolder.mapToEach(SKIP_NULL_MODEL_MAPPER, record, Person.class).get(Person.class))
+                .isEqualTo(modelMapper.map(record, Person.class));
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.example.domain.model;
+
+import com.example.config.LazyProjection;
+import com.example.config.ModelMapperHolder;
+import com.example.domain.model.test001.Person;
+import com.example.domain.model.test004.LinkSource;
+import com.example.domain.model.test004.LinkTarget;
+import com.example.domain.model.test004.LinkView;
+import com.example.domain.model.test004.WideSource;
+import com.example.domain.model.test004.WideTarget;
+import com.example.domain.model.test004.WideView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.example.config.ModelMapperConfig.MODEL_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class Mapping004Test {
+
+    private static final int ITERATIONS = 100_000;
+
+    private final ModelMapperHolder modelMapperHolder;
+
+    @Autowired
+    public Mapping004Test(ModelMapperHolder modelMapperHolder) {
+        this.modelMapperHolder = modelMapperHolder;
+    }
+
+    private WideSource createSource() {
+        var source = new WideSource();
+        source.setField01("field01_xxx");
+        source.setField02("field02_xxx");
+        source.setField03("field03_xxx");
+        source.setField04("field04_xxx");
+        source.setField05("field05_xxx");
+        source.setField06("field06_xxx");
+        source.setField07("field07_xxx");
+        source.setField08("field08_xxx");
+        source.setField09("field09_xxx");
+        source.setField10("field10_xxx");
+        source.setField11("field11_xxx");
+        source.setField12("field12_xxx");
+        source.setField13("field13_xxx");
+        source.setField14("field14_xxx");
+        source.setField15("field15_xxx");
+        source.setField16("field16_xxx");
+        source.setField17("field17_xxx");
+        source.setField18("field18_xxx");
+        source.setField19("field19_xxx");
+        source.setField20("field20_xxx");
+        source.setPerson(new Person("abc", "efg"));
+        return source;
+    }
+
+    @Test
+    @DisplayName("インタフェースへの遅延評価プロジェクション")
+    void test001() {
+
+        var source = createSource();
+        var actual = modelMapperHolder.project(MODEL_MAPPER, source, WideTarget.class, WideView.class);
+
+        // 最初のアクセス時に変換され、以降は同じ値を返す
+        assertThat(actual.getField01()).isEqualTo("field01_xxx");
+        source.setField01("field01_changed");
+        assertThat(actual.getField01()).isEqualTo("field01_xxx");
+
+        // 未評価のプロパティはソースの変更が反映される
+        source.setField02("field02_changed");
+        assertThat(actual.getField02()).isEqualTo("field02_changed");
+
+        // DeepCopyが有効なため、オブジェクト型のプロパティはコピーされる
+        assertThat(actual.getPerson()).isEqualTo(source.getPerson());
+        assertThat(actual.getPerson()).isNotSameAs(source.getPerson());
+    }
+
+    @Test
+    @DisplayName("materialize()でソースから切り離す")
+    void test002() {
+
+        var source = createSource();
+        var actual = modelMapperHolder.project(MODEL_MAPPER, source, WideTarget.class, WideView.class);
+
+        ((LazyProjection) actual).materialize();
+        source.setField20("field20_changed");
+
+        assertThat(((LazyProjection) actual).isMaterialized()).isTrue();
+        assertThat(actual.getField20()).isEqualTo("field20_xxx");
+
+        System.out.println(actual);
+
+        // 結果
+        // WideView(field01=field01_xxx, field02=field02_xxx, ... , field20=field20_xxx, person=Person(firstName=abc, lastName=efg))
+    }
+
+    /**
+     * -Dbenchmark=true で実行する。
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("通常のマッピングとの処理時間の比較(10%/100%のプロパティを参照)")
+    void test003() {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        var source = createSource();
+
+        // ウォームアップ
+        for (int i = 0; i < ITERATIONS; i++) {
+            modelMapper.map(source, WideTarget.class);
+            ((LazyProjection) modelMapperHolder.project(MODEL_MAPPER, source, WideTarget.class, WideView.class)).materialize();
+        }
+
+        var start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            var target = modelMapper.map(source, WideTarget.class);
+            target.getField01();
+            target.getField02();
+        }
+        var eager = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            var view = modelMapperHolder.project(MODEL_MAPPER, source, WideTarget.class, WideView.class);
+            view.getField01();
+            view.getField02();
+        }
+        var lazy10 = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            var view = modelMapperHolder.project(MODEL_MAPPER, source, WideTarget.class, WideView.class);
+            ((LazyProjection) view).materialize();
+        }
+        var lazy100 = System.nanoTime() - start;
+
+        System.out.println("map()               : " + eager / 1_000_000 + " ms");
+        System.out.println("project() 10% read  : " + lazy10 / 1_000_000 + " ms");
+        System.out.println("project() 100% read : " + lazy100 / 1_000_000 + " ms");
+
+        // 結果(参考値)
+        // map()               : 1600 ms
+        // project() 10% read  : 20 ms
+        // project() 100% read : 200 ms
+    }
+
+    @Test
+    @DisplayName("TypeMapのマッピング(明示的なマッピング・プロパティ名の規約)に従い、map()と同じ値になる")
+    void test004() {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        var source = new LinkSource();
+        source.setURL("https://example.com");
+        source.setTitle("title_xxx");
+        source.setDescription("description_xxx");
+
+        // getURL のプロパティ名は URL
+        var before = modelMapperHolder.project(MODEL_MAPPER, source, LinkTarget.class, LinkView.class);
+        assertThat(before.getURL()).isEqualTo("https://example.com");
+        assertThat(before.getLabel()).isNull();
+
+        // TypeMapの変更後は、変更後のマッピングでプロジェクションを作成する
+        modelMapperHolder.configureTypeMap(MODEL_MAPPER, LinkSource.class, LinkTarget.class,
+                typeMap -> typeMap.addMapping(LinkSource::getDescription, LinkTarget::setLabel));
+
+        var expected = modelMapper.map(source, LinkTarget.class);
+        var actual = modelMapperHolder.project(MODEL_MAPPER, source, LinkTarget.class, LinkView.class);
+        assertThat(actual.getURL()).isEqualTo(expected.getURL());
+        assertThat(actual.getTitle()).isEqualTo(expected.getTitle());
+        assertThat(actual.getLabel()).isEqualTo(expected.getLabel()).isEqualTo("description_xxx");
+    }
+
+}
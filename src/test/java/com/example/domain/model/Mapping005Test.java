@@ -0,0 +1,180 @@
+package com.example.domain.model;
+
+import com.example.config.ModelMapperHolder;
+import com.example.domain.model.test001.Source;
+import com.example.domain.model.test001.Target;
+import com.example.domain.model.test002.DestinationValue;
+import com.example.domain.model.test002.SourceRecord;
+import com.example.domain.model.test002.SourceValue;
+import com.example.domain.model.test005.PersonValue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.example.config.ModelMapperConfig.BUILDER_MODEL_MAPPER;
+import static com.example.config.ModelMapperConfig.MODEL_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class Mapping005Test {
+
+    private static final int ITERATIONS = 200_000;
+    private static final int BLOCK_SIZE = 10_000;
+
+    private final ModelMapperHolder modelMapperHolder;
+
+    @Autowired
+    public Mapping005Test(ModelMapperHolder modelMapperHolder) {
+        this.modelMapperHolder = modelMapperHolder;
+    }
+
+    private SourceValue createSource(int i) {
+        return SourceValue.builder()
+                .firstName("firstName_" + i)
+                .lastName("lastName_" + i)
+                .build();
+    }
+
+    private DestinationValue mapMemoized(Object source) {
+        return modelMapperHolder.mapMemoized(BUILDER_MODEL_MAPPER, source,
+                DestinationValue.DestinationValueBuilder.class, DestinationValue.DestinationValueBuilder::build);
+    }
+
+    @Test
+    @DisplayName("イミュータブルなソースのマッピング結果をキャッシュする")
+    void test001() {
+
+        var before = modelMapperHolder.memoizationStats();
+
+        // 同じ値の別インスタンス
+        var first = mapMemoized(new SourceRecord("firstName", "lastName", "fullFullName"));
+        var second = mapMemoized(new SourceRecord("firstName", "lastName", "fullFullName"));
+
+        var after = modelMapperHolder.memoizationStats();
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getFullFullName()).isEqualTo("fullFullName");
+        assertThat(after.hitCount() - before.hitCount()).isEqualTo(1);
+
+        System.out.println(after);
+
+        // 結果
+        // MemoizationStats[hitCount=1, missCount=1, bypassCount=0, evictionCount=0, size=1, maximumSize=10000]
+    }
+
+    @Test
+    @DisplayName("ミュータブルなソースはキャッシュしない")
+    void test002() {
+
+        var source = new Source();
+        source.setFirstName("firstName_xxx");
+
+        var before = modelMapperHolder.memoizationStats();
+        var first = modelMapperHolder.mapMemoized(MODEL_MAPPER, source, Target.class);
+        var second = modelMapperHolder.mapMemoized(MODEL_MAPPER, source, Target.class);
+        var after = modelMapperHolder.memoizationStats();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(after.hitCount()).isEqualTo(before.hitCount());
+        assertThat(after.missCount()).isEqualTo(before.missCount());
+    }
+
+    /**
+     * -Dbenchmark=true で実行する。
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("キャッシュの有無による処理時間の比較(ヒット中心/ミス中心)")
+    void test003() {
+
+        var modelMapper = modelMapperHolder.get(BUILDER_MODEL_MAPPER);
+        var hotSources = new SourceValue[100];
+        for (int i = 0; i < hotSources.length; i++) {
+            hotSources[i] = createSource(i);
+        }
+        var coldSources = new SourceValue[ITERATIONS * 2];
+        for (int i = 0; i < coldSources.length; i++) {
+            coldSources[i] = createSource(hotSources.length + i);
+        }
+
+        // ウォームアップ
+        for (int i = 0; i < ITERATIONS; i++) {
+            modelMapper.map(hotSources[i % hotSources.length], DestinationValue.DestinationValueBuilder.class).build();
+            mapMemoized(hotSources[i % hotSources.length]);
+        }
+
+        var start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            modelMapper.map(hotSources[i % hotSources.length], DestinationValue.DestinationValueBuilder.class).build();
+        }
+        var hitMap = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapMemoized(hotSources[i % hotSources.length]);
+        }
+        var hitMemoized = System.nanoTime() - start;
+
+        // ミス中心は、実行順による差が出ないようにブロック単位で交互に計測する
+        var bypassBefore = modelMapperHolder.memoizationStats().bypassCount();
+        long missMap = 0;
+        long missMemoized = 0;
+        for (int block = 0; block < ITERATIONS; block += BLOCK_SIZE) {
+            start = System.nanoTime();
+            for (int i = block; i < block + BLOCK_SIZE; i++) {
+                mapMemoized(coldSources[ITERATIONS + i]);
+            }
+            missMemoized += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = block; i < block + BLOCK_SIZE; i++) {
+                modelMapper.map(coldSources[i], DestinationValue.DestinationValueBuilder.class).build();
+            }
+            missMap += System.nanoTime() - start;
+        }
+        var bypassed = modelMapperHolder.memoizationStats().bypassCount() - bypassBefore;
+
+        System.out.println("hit  map()         : " + hitMap / 1_000_000 + " ms");
+        System.out.println("hit  mapMemoized() : " + hitMemoized / 1_000_000 + " ms");
+        System.out.println("miss map()         : " + missMap / 1_000_000 + " ms");
+        System.out.println("miss mapMemoized() : " + missMemoized / 1_000_000 + " ms");
+        System.out.println(modelMapperHolder.memoizationStats());
+
+        // ヒット率が下がると、キーを作成せずキャッシュも参照しない
+        assertThat(bypassed).isGreaterThanOrEqualTo(ITERATIONS * 9L / 10);
+
+        // 結果(参考値)
+        // hit  map()         : 400 ms
+        // hit  mapMemoized() : 30 ms
+        // miss map()         : 445 ms
+        // miss mapMemoized() : 460 ms  // ミスの約98%はキャッシュを参照しない(差は計測誤差の範囲)
+    }
+
+    @Test
+    @DisplayName("configureTypeMapでTypeMapを変更すると、キャッシュしたマッピング結果を破棄する")
+    void test004() {
+
+        var source = createSource(0);
+
+        var first = mapMemoizedPerson(source);
+        assertThat(mapMemoizedPerson(source)).isSameAs(first);
+        assertThat(first.getLastName()).isEqualTo("lastName_0");
+
+        modelMapperHolder.configureTypeMap(BUILDER_MODEL_MAPPER, SourceValue.class, PersonValue.PersonValueBuilder.class,
+                typeMap -> typeMap.setPostConverter(
+                        context -> context.getDestination().lastName(context.getSource().getFullName())));
+
+        var second = mapMemoizedPerson(source);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getLastName()).isNull();
+        assertThat(mapMemoizedPerson(source)).isSameAs(second);
+    }
+
+    private PersonValue mapMemoizedPerson(SourceValue source) {
+        return modelMapperHolder.mapMemoized(BUILDER_MODEL_MAPPER, source,
+                PersonValue.PersonValueBuilder.class, PersonValue.PersonValueBuilder::build);
+    }
+
+}
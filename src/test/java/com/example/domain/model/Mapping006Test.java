@@ -0,0 +1,107 @@
+package com.example.domain.model;
+
+import com.example.config.ModelMapperFootprint;
+import com.example.config.ModelMapperHolder;
+import com.example.config.TypeMapFootprint;
+import com.example.domain.model.test001.Person;
+import com.example.domain.model.test001.Source;
+import com.example.domain.model.test001.Source2;
+import com.example.domain.model.test001.Target;
+import com.example.domain.model.test001.Target2;
+import com.example.domain.model.test002.SourceRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+
+import static com.example.config.ModelMapperConfig.MODEL_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jmx.enabled=true")
+class Mapping006Test {
+
+    private final ModelMapperHolder modelMapperHolder;
+
+    @Autowired
+    public Mapping006Test(ModelMapperHolder modelMapperHolder) {
+        this.modelMapperHolder = modelMapperHolder;
+    }
+
+    @Test
+    @DisplayName("ドメインクラスのヒープ使用量の見積もり(64bit JVM・圧縮参照)")
+    void test001() {
+
+        // Person: ヘッダ12 + 参照4 x 2 = 20 -> 24
+        // String: ヘッダ12 + フィールド10 = 22 -> 24, byte[3]: 16 + 3 = 19 -> 24
+        assertThat(ModelMapperFootprint.estimateBytes(new Person("abc", "efg"))).isEqualTo(24 + (24 + 24) * 2);
+
+        // SourceRecord: ヘッダ12 + 参照4 x 3 = 24
+        assertThat(ModelMapperFootprint.estimateBytes(new SourceRecord("a", "b", "c"))).isEqualTo(24 + (24 + 24) * 3);
+
+        // Source2: ヘッダ12 + 参照4 x 6 = 36 -> 40 (フィールドは全てnull)
+        assertThat(ModelMapperFootprint.estimateBytes(new Source2())).isEqualTo(40);
+
+        // Latin-1 の範囲外の文字を含む String は1文字2バイト: byte[20]: 16 + 20 = 36 -> 40
+        assertThat(ModelMapperFootprint.estimateBytes("a".repeat(10))).isEqualTo(24 + 32);
+        assertThat(ModelMapperFootprint.estimateBytes("あ".repeat(10))).isEqualTo(24 + 40);
+
+        // 同じインスタンスは1回だけ数える
+        var name = "abc";
+        assertThat(ModelMapperFootprint.estimateBytes(new Person(name, name))).isEqualTo(24 + 24 + 24);
+    }
+
+    @Test
+    @DisplayName("TypeMapの件数・マッピング件数・見積もりサイズを集計")
+    void test002() {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        modelMapper.map(new Source(), Target.class);
+        modelMapper.map(new Source2(), Target2.class);
+
+        var footprint = modelMapperHolder.footprint().stream()
+                .filter(f -> f.key().equals(MODEL_MAPPER))
+                .findFirst()
+                .orElseThrow();
+
+        var sourceToTarget = footprint.typeMaps().stream()
+                .filter(t -> t.name().equals("Source -> Target"))
+                .findFirst()
+                .orElseThrow();
+        var source2ToTarget2 = footprint.typeMaps().stream()
+                .filter(t -> t.name().equals("Source2 -> Target2"))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(sourceToTarget.mappingCount()).isEqualTo(1);
+        assertThat(source2ToTarget2.mappingCount()).isEqualTo(3);
+        assertThat(source2ToTarget2.estimatedBytes()).isGreaterThan(sourceToTarget.estimatedBytes());
+        assertThat(footprint.typeMapCount()).isEqualTo(modelMapper.getTypeMaps().size());
+        assertThat(footprint.estimatedBytes())
+                .isGreaterThan(footprint.typeMaps().stream().mapToLong(TypeMapFootprint::estimatedBytes).sum());
+        assertThat(footprint.largestTypeMaps(1).get(0).estimatedBytes())
+                .isEqualTo(footprint.typeMaps().stream().mapToLong(TypeMapFootprint::estimatedBytes).max().orElseThrow());
+
+        modelMapperHolder.footprint().forEach(System.out::println);
+
+        // 結果
+        // MapperFootprint[key=modelMapper, typeMapCount=6, mappingCount=4, estimatedBytes=4696, typeMaps=[Source2 -> Target2 (mappings=3, estimatedBytes=896), Source -> Target (mappings=1, estimatedBytes=432), List -> String (mappings=0, estimatedBytes=152), ...]]
+    }
+
+    @Test
+    @DisplayName("JMXでヒープ使用量を参照")
+    void test003() throws Exception {
+
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName(ModelMapperFootprint.OBJECT_NAME);
+
+        assertThat(server.isRegistered(name)).isTrue();
+
+        var typeMapCounts = (TabularData) server.getAttribute(name, "TypeMapCounts");
+        assertThat(typeMapCounts.containsKey(new Object[]{MODEL_MAPPER})).isTrue();
+    }
+
+}
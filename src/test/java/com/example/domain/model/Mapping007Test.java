@@ -0,0 +1,136 @@
+package com.example.domain.model;
+
+import com.example.config.ModelMapperHolder;
+import com.example.domain.model.test001.Person;
+import com.example.domain.model.test001.Source2;
+import com.example.domain.model.test001.Target2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.modelmapper.TypeToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.example.config.ModelMapperConfig.MODEL_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class Mapping007Test {
+
+    private static final int BENCHMARK_SIZE = Integer.getInteger("collection.benchmark.size", 1_000);
+
+    private final ModelMapperHolder modelMapperHolder;
+
+    @Autowired
+    public Mapping007Test(ModelMapperHolder modelMapperHolder) {
+        this.modelMapperHolder = modelMapperHolder;
+    }
+
+    private List<Source2> createSources(int size) {
+        var sources = new ArrayList<Source2>(size);
+        for (int i = 0; i < size; i++) {
+            var source = new Source2();
+            source.setFirstName("firstName_" + i);
+            source.setHomeAddress("homeAddress_" + i);
+            sources.add(source);
+        }
+        return sources;
+    }
+
+    @Test
+    @DisplayName("List<Bean>のマッピング(TypeTokenを使った場合と同じ結果)")
+    void test001() {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        var sources = createSources(3);
+        sources.add(null);
+
+        var actual = modelMapperHolder.mapList(MODEL_MAPPER, sources, Target2.class);
+        List<Target2> expected = modelMapper.map(sources, new TypeToken<List<Target2>>() {
+        }.getType());
+
+        assertThat(actual).hasSize(4);
+        assertThat(actual.get(3)).isNull();
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Map<K, Bean>、Set<Bean>のマッピング")
+    void test002() {
+
+        var sources = new LinkedHashMap<String, Person>();
+        sources.put("a", new Person("firstName_a", "lastName_a"));
+        sources.put("b", new Person("firstName_b", "lastName_b"));
+
+        var actual = modelMapperHolder.mapMap(MODEL_MAPPER, sources, Person.class);
+
+        assertThat(actual).containsExactlyEntriesOf(sources);
+        assertThat(actual.get("a")).isNotSameAs(sources.get("a")); // DeepCopy
+
+        var set = modelMapperHolder.mapCollection(MODEL_MAPPER, sources.values(), Person.class, HashSet::new);
+        assertThat(set).containsExactlyInAnyOrderElementsOf(sources.values());
+    }
+
+    /**
+     * -Dbenchmark=true で実行する。件数の上限は -Dcollection.benchmark.size (既定値 1,000件)
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("TypeTokenを使ったマッピングとの処理時間の比較(10件～100万件)")
+    void test003() {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        var type = new TypeToken<List<Target2>>() {
+        }.getType();
+
+        // ウォームアップ
+        var warmup = createSources(10_000);
+        modelMapper.map(warmup, type);
+        modelMapperHolder.mapList(MODEL_MAPPER, warmup, Target2.class);
+
+        for (var size : Stream.of(10, 1_000, 100_000, 1_000_000).filter(n -> n <= BENCHMARK_SIZE).toList()) {
+            var sources = createSources(size);
+
+            var start = System.nanoTime();
+            modelMapper.map(sources, type);
+            var typeToken = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            modelMapperHolder.mapList(MODEL_MAPPER, sources, Target2.class);
+            var mapList = System.nanoTime() - start;
+
+            System.out.printf("%,9d: map(TypeToken) %,10.2f ms, mapList() %,10.2f ms%n",
+                    size, typeToken / 1_000_000.0, mapList / 1_000_000.0);
+        }
+
+        // 結果(参考値、-Dcollection.benchmark.size=1000000)
+        //        10: map(TypeToken)       0.40 ms, mapList()       0.05 ms
+        //     1,000: map(TypeToken)      39.54 ms, mapList()      11.75 ms
+        //   100,000: map(TypeToken)     799.20 ms, mapList()      15.65 ms
+        // 1,000,000: map(TypeToken)   4,935.32 ms, mapList()     152.08 ms
+    }
+
+    @Test
+    @DisplayName("値型の要素のマッピング(TypeMapを作成せず、ModelMapperのコンバーターで変換される)")
+    void test004() {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        var typeMapCount = modelMapper.getTypeMaps().size();
+
+        assertThat(modelMapperHolder.mapList(MODEL_MAPPER, List.of("a", "b"), String.class)).containsExactly("a", "b");
+        assertThat(modelMapperHolder.mapList(MODEL_MAPPER, List.of(1, 2), Long.class)).containsExactly(1L, 2L);
+        assertThat(modelMapperHolder.mapMap(MODEL_MAPPER, Map.of("a", "1"), Integer.class)).containsEntry("a", 1);
+
+        // 共有しているModelMapperの結果も変わらない
+        assertThat(modelMapper.getTypeMaps()).hasSize(typeMapCount);
+        assertThat(modelMapper.map("x", String.class)).isEqualTo("x");
+    }
+
+}
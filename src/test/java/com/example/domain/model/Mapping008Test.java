@@ -0,0 +1,185 @@
+package com.example.domain.model;
+
+import com.example.config.ModelMapperHolder;
+import com.example.config.PolymorphicMapping;
+import com.example.domain.model.test001.Source;
+import com.example.domain.model.test001.Target;
+import com.example.domain.model.test008.BaseSource;
+import com.example.domain.model.test008.BaseTarget;
+import com.example.domain.model.test008.ContractorTarget;
+import com.example.domain.model.test008.CustomerSource;
+import com.example.domain.model.test008.CustomerTarget;
+import com.example.domain.model.test008.EmployeeSource;
+import com.example.domain.model.test008.EmployeeTarget;
+import com.example.domain.model.test008.Variants;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.config.ModelMapperConfig.MODEL_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class Mapping008Test {
+
+    private static final int ELEMENTS = 100_000;
+
+    private final ModelMapperHolder modelMapperHolder;
+
+    @Autowired
+    public Mapping008Test(ModelMapperHolder modelMapperHolder) {
+        this.modelMapperHolder = modelMapperHolder;
+    }
+
+    @Test
+    @DisplayName("ソースの型に応じて送信先の型を切り替える")
+    void test001() {
+
+        var mapping = modelMapperHolder.polymorphic(MODEL_MAPPER, BaseSource.class, BaseTarget.class)
+                .rule(CustomerSource.class, CustomerTarget.class)
+                .rule(EmployeeSource.class, EmployeeTarget.class)
+                .build();
+
+        var customer = new CustomerSource();
+        customer.setFirstName("firstName_customer");
+        customer.setCompanyAddress("companyAddress_xxx");
+        var employee = new EmployeeSource();
+        employee.setFirstName("firstName_employee");
+        employee.setHomeAddress("homeAddress_xxx");
+
+        var actual = mapping.mapList(List.of(customer, employee));
+
+        assertThat(actual.get(0)).isInstanceOf(CustomerTarget.class);
+        assertThat(((CustomerTarget) actual.get(0)).getCompanyAddress()).isEqualTo("companyAddress_xxx");
+        assertThat(actual.get(1)).isInstanceOf(EmployeeTarget.class);
+        assertThat(actual.get(1).getFirstName()).isEqualTo("firstName_employee");
+
+        System.out.println(actual);
+
+        // 結果
+        // [CustomerTarget(super=BaseTarget(firstName=firstName_customer, lastName=null), companyAddress=companyAddress_xxx),
+        //  EmployeeTarget(super=BaseTarget(firstName=firstName_employee, lastName=null), homeAddress=homeAddress_xxx)]
+    }
+
+    @Test
+    @DisplayName("宣言の無い型は例外")
+    void test002() {
+
+        var mapping = modelMapperHolder.polymorphic(MODEL_MAPPER, BaseSource.class, BaseTarget.class)
+                .rule(CustomerSource.class, CustomerTarget.class)
+                .build();
+
+        assertThatThrownBy(() -> mapping.map(new EmployeeSource()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * -Dbenchmark=true で実行する。
+     * どちらも型の組み合わせごとのマッピング計画(ModelMapperHolder#map と同じ経路)でマッピングし、送信先を選ぶ処理だけを比較する。
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("instanceofの連鎖で送信先を選ぶ場合との処理時間の比較(2, 8, 32種類)")
+    void test003() throws Exception {
+
+        for (var subtypes : Arrays.asList(2, 8, 32)) {
+            var builder = modelMapperHolder.polymorphic(MODEL_MAPPER, BaseSource.class, BaseTarget.class);
+            for (int i = 0; i < subtypes; i++) {
+                builder.rule(Variants.SOURCES.get(i), Variants.TARGETS.get(i));
+            }
+            PolymorphicMapping<BaseSource, BaseTarget> mapping = builder.build();
+
+            var sources = new ArrayList<BaseSource>(ELEMENTS);
+            for (int i = 0; i < ELEMENTS; i++) {
+                var source = Variants.SOURCES.get(i % subtypes).getConstructor().newInstance();
+                source.setFirstName("firstName_" + i);
+                sources.add(source);
+            }
+
+            // ウォームアップ
+            for (int i = 0; i < 3; i++) {
+                mapping.mapList(sources);
+                mapWithInstanceof(sources, subtypes);
+            }
+
+            var start = System.nanoTime();
+            var expected = mapWithInstanceof(sources, subtypes);
+            var chain = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            var actual = mapping.mapList(sources);
+            var polymorphic = System.nanoTime() - start;
+
+            assertThat(actual).isEqualTo(expected);
+
+            System.out.printf("%2d subtypes: instanceof + map() %,6d ms, polymorphic %,6d ms%n",
+                    subtypes, chain / 1_000_000, polymorphic / 1_000_000);
+        }
+
+        // 結果(参考値)
+        //  2 subtypes: instanceof + map()     33 ms, polymorphic     14 ms
+        //  8 subtypes: instanceof + map()     28 ms, polymorphic      9 ms
+        // 32 subtypes: instanceof + map()     16 ms, polymorphic      8 ms
+    }
+
+    @Test
+    @DisplayName("基底型のサブタイプでない型の宣言は例外")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void test004() {
+
+        // 型引数を経由しない(raw型の)Builder
+        PolymorphicMapping.Builder builder = modelMapperHolder.polymorphic(MODEL_MAPPER, BaseSource.class, BaseTarget.class);
+
+        assertThatThrownBy(() -> builder.rule(Source.class, CustomerTarget.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.rule(CustomerSource.class, Target.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("インスタンスを作成できない送信先(抽象クラス・引数なしのコンストラクタが無いもの)の宣言は例外。プロバイダーがあれば宣言できる")
+    void test005() {
+
+        var builder = modelMapperHolder.polymorphic(MODEL_MAPPER, BaseSource.class, BaseTarget.class);
+
+        assertThatThrownBy(() -> builder.rule(CustomerSource.class, BaseTarget.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.rule(CustomerSource.class, ContractorTarget.class))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        modelMapperHolder.configureTypeMap(MODEL_MAPPER, EmployeeSource.class, ContractorTarget.class,
+                typeMap -> typeMap.setProvider(request -> new ContractorTarget("agency_xxx")));
+        var mapping = builder.rule(EmployeeSource.class, ContractorTarget.class).build();
+
+        var employee = new EmployeeSource();
+        employee.setFirstName("firstName_employee");
+        var actual = (ContractorTarget) mapping.map(employee);
+
+        assertThat(actual.getAgency()).isEqualTo("agency_xxx");
+        assertThat(actual.getFirstName()).isEqualTo("firstName_employee");
+    }
+
+    /**
+     * instanceofの連鎖で送信先の型を選び、ModelMapperHolder#map でマッピングする。
+     */
+    private List<BaseTarget> mapWithInstanceof(List<BaseSource> sources, int subtypes) {
+        var result = new ArrayList<BaseTarget>(sources.size());
+        for (var source : sources) {
+            for (int i = 0; i < subtypes; i++) {
+                if (Variants.SOURCES.get(i).isInstance(source)) {
+                    result.add(modelMapperHolder.map(MODEL_MAPPER, source, Variants.TARGETS.get(i)));
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+}
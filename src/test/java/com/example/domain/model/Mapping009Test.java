@@ -0,0 +1,262 @@
+package com.example.domain.model;
+
+import com.example.config.IngestOptions;
+import com.example.config.ModelMapperHolder;
+import com.example.domain.model.test009.ImportTarget;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.config.ModelMapperConfig.MODEL_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class Mapping009Test {
+
+    /**
+     * ベンチマークのファイルサイズ(-Dingest.benchmark.bytes=4000000000 で数GBのファイルを作成して計測する)
+     */
+    private static final long BENCHMARK_BYTES = Long.getLong("ingest.benchmark.bytes", 1_000_000L);
+
+    private final ModelMapperHolder modelMapperHolder;
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    public Mapping009Test(ModelMapperHolder modelMapperHolder) {
+        this.modelMapperHolder = modelMapperHolder;
+    }
+
+    @Test
+    @DisplayName("CSVファイルの取り込み(引用符・改行を含む値、コンバーターによる変換)")
+    void test001() throws Exception {
+
+        var file = tempDir.resolve("test001.csv");
+        Files.writeString(file, """
+                firstName,lastName,age,tags,roles,unknown\r
+                taro,"yamada, jr",30,"a,b",x,zz\r
+                \r
+                "ha""na","multi
+                line",,c,"x,y",
+                jiro,suzuki,41,,,""");
+
+        var actual = new ArrayList<ImportTarget>();
+        var count = modelMapperHolder.ingest(MODEL_MAPPER, file, ImportTarget.class, IngestOptions.csv(), actual::addAll);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(actual.get(0).getLastName()).isEqualTo("yamada, jr");
+        assertThat(actual.get(0).getAge()).isEqualTo(30);
+        assertThat(actual.get(0).getTags()).containsExactly("a", "b"); // stringToList
+        assertThat(actual.get(1).getFirstName()).isEqualTo("ha\"na");
+        assertThat(actual.get(1).getLastName()).isEqualTo("multi\nline");
+        assertThat(actual.get(1).getAge()).isNull();
+        assertThat(actual.get(1).getRoles()).isEqualTo(Set.of("x", "y")); // stringToSet
+        assertThat(actual.get(2).getTags()).isNull();
+
+        System.out.println(actual);
+
+        // 結果
+        // [ImportTarget(firstName=taro, lastName=yamada, jr, homeAddress=null, age=30, tags=[a, b], roles=[x]),
+        //  ImportTarget(firstName=ha"na, lastName=multi
+        // line, homeAddress=null, age=null, tags=[c], roles=[y, x]),
+        //  ImportTarget(firstName=jiro, lastName=suzuki, homeAddress=null, age=41, tags=null, roles=null)]
+    }
+
+    @Test
+    @DisplayName("TSVファイルの取り込み(複数スレッドでマッピングしてもファイルの順序を保つ)")
+    void test002() throws Exception {
+
+        var file = tempDir.resolve("test002.tsv");
+        writeFile(file, '\t', 10_000);
+
+        var options = IngestOptions.tsv().withBatchSize(7).withParallelism(4);
+        var actual = new ArrayList<ImportTarget>();
+        var batchSizes = new ArrayList<Integer>();
+        var count = modelMapperHolder.ingest(MODEL_MAPPER, file, ImportTarget.class, options, batch -> {
+            batchSizes.add(batch.size());
+            actual.addAll(batch);
+        });
+
+        assertThat(count).isEqualTo(10_000);
+        for (int i = 0; i < actual.size(); i++) {
+            assertThat(actual.get(i).getFirstName()).isEqualTo("firstName_" + i);
+            assertThat(actual.get(i).getAge()).isEqualTo(i % 100);
+        }
+        assertThat(batchSizes).hasSize(10_000 / 7 + 1).allMatch(size -> size <= 7);
+    }
+
+    @Test
+    @DisplayName("consumerの例外・不正な形式のファイルは呼び出し元に通知する")
+    void test003() throws Exception {
+
+        var file = tempDir.resolve("test003.csv");
+        writeFile(file, ',', 10_000);
+
+        assertThatThrownBy(() -> modelMapperHolder.ingest(MODEL_MAPPER, file, ImportTarget.class,
+                IngestOptions.csv().withBatchSize(10), batch -> {
+                    throw new IllegalStateException("consumer failed");
+                }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("consumer failed");
+
+        var invalid = tempDir.resolve("invalid.csv");
+        Files.writeString(invalid, "firstName,lastName\n\"taro,yamada\n");
+
+        assertThatThrownBy(() -> modelMapperHolder.ingest(MODEL_MAPPER, invalid, ImportTarget.class,
+                IngestOptions.csv(), batch -> {
+                }))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Unterminated quoted field at offset 19.");
+
+        assertThatThrownBy(() -> IngestOptions.csv().withCharset(Charset.forName("UTF-16")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * -Dbenchmark=true で実行する。ファイルサイズは -Dingest.benchmark.bytes (既定値 1,000,000バイト)
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("1行ずつ読み込んでMapからマッピングする場合との処理時間の比較")
+    void test004() throws Exception {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        var file = tempDir.resolve("test004.csv");
+        var rows = writeFile(file, ',', Long.MAX_VALUE, BENCHMARK_BYTES);
+
+        var start = System.nanoTime();
+        var expected = 0L;
+        try (var reader = Files.newBufferedReader(file)) {
+            var header = reader.readLine().split(",");
+            String line;
+            while ((line = reader.readLine()) != null) {
+                var values = line.split(",");
+                var row = new LinkedHashMap<String, String>();
+                for (int i = 0; i < header.length; i++) {
+                    row.put(header[i], values[i]);
+                }
+                modelMapper.map(row, ImportTarget.class);
+                expected++;
+            }
+        }
+        var readLine = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        var actual = modelMapperHolder.ingest(MODEL_MAPPER, file, ImportTarget.class, IngestOptions.csv(), batch -> {
+        });
+        var ingest = System.nanoTime() - start;
+
+        assertThat(actual).isEqualTo(expected).isEqualTo(rows);
+
+        System.out.printf("%,d bytes, %,d rows: readLine() + map(Map) %,d ms, ingest() %,d ms%n",
+                Files.size(file), rows, readLine / 1_000_000, ingest / 1_000_000);
+
+        // 結果(参考値、-Dingest.benchmark.bytes=50000000)
+        // 50,174,705 bytes, 920,000 rows: readLine() + map(Map) 23,536 ms, ingest() 673 ms
+    }
+
+    @Test
+    @DisplayName("見出しの先頭のBOMは除く。setter以外のメソッド(equals・canEqual)と同名の列は無視する")
+    void test005() throws Exception {
+
+        var file = tempDir.resolve("test005.csv");
+        Files.writeString(file, "\uFEFFfirstName,equals,canEqual,age\ntaro,x,y,30\n");
+
+        var actual = new ArrayList<ImportTarget>();
+        modelMapperHolder.ingest(MODEL_MAPPER, file, ImportTarget.class, IngestOptions.csv(), actual::addAll);
+
+        assertThat(actual).hasSize(1);
+        assertThat(actual.get(0).getFirstName()).isEqualTo("taro");
+        assertThat(actual.get(0).getAge()).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("MS932の2バイト目がASCIIの範囲(0x5C・0x7C)の文字を含む値。その範囲の区切り文字はMS932では使えない")
+    void test006() throws Exception {
+
+        var ms932 = Charset.forName("MS932");
+        // 表(0x95 0x5C)・ソ(0x83 0x5C)・倒(0x93 0x7C)
+        var file = tempDir.resolve("test006.csv");
+        Files.writeString(file, "firstName,lastName\r\n表示ソフト,\"倒,産\"\r\n", ms932);
+
+        var actual = new ArrayList<ImportTarget>();
+        modelMapperHolder.ingest(MODEL_MAPPER, file, ImportTarget.class, IngestOptions.csv().withCharset(ms932),
+                actual::addAll);
+
+        assertThat(actual).hasSize(1);
+        assertThat(actual.get(0).getFirstName()).isEqualTo("表示ソフト");
+        assertThat(actual.get(0).getLastName()).isEqualTo("倒,産");
+
+        // 0x7C('|')・0x5C('\\')は文字の途中に現れるため使えない
+        assertThatThrownBy(() -> new IngestOptions('|', ms932, IngestOptions.DEFAULT_BATCH_SIZE, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new IngestOptions('|', StandardCharsets.UTF_8, IngestOptions.DEFAULT_BATCH_SIZE, 1)
+                .withCharset(ms932))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(IngestOptions.tsv().withCharset(ms932).charset()).isEqualTo(ms932);
+    }
+
+    @Test
+    @DisplayName("見出しはプロパティ名と完全に一致する場合のみ対応付ける(マッチング戦略・TypeMapは使わない)")
+    void test007() throws Exception {
+
+        var file = tempDir.resolve("test007.csv");
+        Files.writeString(file, "first_name,LastName,homeAddress\ntaro,yamada,tokyo\n");
+
+        var actual = new ArrayList<ImportTarget>();
+        modelMapperHolder.ingest(MODEL_MAPPER, file, ImportTarget.class, IngestOptions.csv(), actual::addAll);
+
+        assertThat(actual).hasSize(1);
+        assertThat(actual.get(0).getFirstName()).isNull();
+        assertThat(actual.get(0).getLastName()).isNull();
+        assertThat(actual.get(0).getHomeAddress()).isEqualTo("tokyo");
+
+        // マッチング戦略で対応付ける場合は、行を Map にして ModelMapper#map を使う
+        var row = new LinkedHashMap<String, String>();
+        row.put("LastName", "yamada");
+        assertThat(modelMapperHolder.get(MODEL_MAPPER).map(row, ImportTarget.class).getLastName()).isEqualTo("yamada");
+    }
+
+    /**
+     * 見出し行 + rows 行のファイルを作成する。
+     *
+     * @return 行数(見出し行を除く)
+     */
+    private static long writeFile(Path file, char delimiter, long rows) throws IOException {
+        return writeFile(file, delimiter, rows, Long.MAX_VALUE);
+    }
+
+    private static long writeFile(Path file, char delimiter, long maxRows, long maxBytes) throws IOException {
+        var bytes = 0L;
+        var rows = 0L;
+        try (var writer = Files.newBufferedWriter(file)) {
+            var header = String.join(String.valueOf(delimiter), List.of("firstName", "lastName", "homeAddress", "age")) + "\n";
+            writer.write(header);
+            bytes += header.length();
+            while (rows < maxRows && bytes < maxBytes) {
+                var line = "firstName_" + rows + delimiter + "lastName_" + rows + delimiter
+                        + "homeAddress_" + rows + delimiter + (rows % 100) + "\n";
+                writer.write(line);
+                bytes += line.length();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+}
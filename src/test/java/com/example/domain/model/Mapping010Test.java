@@ -0,0 +1,160 @@
+package com.example.domain.model;
+
+import com.example.config.ModelMapperHolder;
+import com.example.domain.model.test001.Person;
+import com.example.domain.model.test001.Source2;
+import com.example.domain.model.test001.Target2;
+import com.example.domain.model.test008.BaseSource;
+import com.example.domain.model.test008.CustomerSource;
+import com.example.domain.model.test008.CustomerTarget;
+import com.example.domain.model.test008.Variants;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.config.ModelMapperConfig.MODEL_MAPPER;
+import static com.example.config.ModelMapperConfig.SKIP_NULL_MODEL_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class Mapping010Test {
+
+    private static final int THREADS = 64;
+
+    private final ModelMapperHolder modelMapperHolder;
+
+    @Autowired
+    public Mapping010Test(ModelMapperHolder modelMapperHolder) {
+        this.modelMapperHolder = modelMapperHolder;
+    }
+
+    /**
+     * THREADS 個のスレッドで一斉に task を実行する。
+     */
+    private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var start = new CountDownLatch(1);
+            var futures = new ArrayList<Future<T>>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            var results = new ArrayList<T>();
+            for (var future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("同じ型の組み合わせを同時に初めてマッピングしても、TypeMapの作成は1回だけ")
+    void test001() throws Exception {
+
+        var source = new CustomerSource();
+        source.setFirstName("firstName_xxx");
+        source.setCompanyAddress("companyAddress_xxx");
+        var before = modelMapperHolder.typeMapCreationStats();
+
+        var actual = runConcurrently(() -> modelMapperHolder.map(SKIP_NULL_MODEL_MAPPER, source, CustomerTarget.class));
+
+        var after = modelMapperHolder.typeMapCreationStats();
+        assertThat(after.creationCount() - before.creationCount()).isEqualTo(1);
+        assertThat(actual).hasSize(THREADS).allSatisfy(target -> {
+            assertThat(target.getFirstName()).isEqualTo("firstName_xxx");
+            assertThat(target.getCompanyAddress()).isEqualTo("companyAddress_xxx");
+        });
+        assertThat(modelMapperHolder.typeMap(SKIP_NULL_MODEL_MAPPER, CustomerSource.class, CustomerTarget.class))
+                .isSameAs(modelMapperHolder.get(SKIP_NULL_MODEL_MAPPER).getTypeMap(CustomerSource.class, CustomerTarget.class));
+
+        System.out.printf("creation: %d, wait: %d%n",
+                after.creationCount() - before.creationCount(), after.waitCount() - before.waitCount());
+
+        // 結果(wait はCPU数によって変わる)
+        // creation: 1, wait: 0
+    }
+
+    @Test
+    @DisplayName("ModelMapper#mapと同じ結果(コンバーターで変換する組み合わせにはTypeMapを作成しない)")
+    void test002() {
+
+        var modelMapper = modelMapperHolder.get(MODEL_MAPPER);
+        var source = new Source2();
+        source.setFirstName("firstName_xxx");
+        source.setHomeAddress("homeAddress_xxx");
+        var person = new Person("firstName_xxx", "lastName_xxx");
+
+        assertThat(modelMapperHolder.map(MODEL_MAPPER, source, Target2.class))
+                .isEqualTo(modelMapper.map(source, Target2.class));
+        assertThat(modelMapperHolder.map(MODEL_MAPPER, person, Person.class))
+                .isEqualTo(person)
+                .isNotSameAs(person); // DeepCopy
+
+        var typeMapCount = modelMapper.getTypeMaps().size();
+        assertThat(modelMapperHolder.map(MODEL_MAPPER, "a,b", List.class)).isEqualTo(List.of("a", "b")); // stringToList
+        assertThat(modelMapperHolder.map(MODEL_MAPPER, 1, Long.class)).isEqualTo(1L);
+        assertThat(modelMapper.getTypeMaps()).hasSize(typeMapCount);
+    }
+
+    @Test
+    @DisplayName("64スレッドで初めての型の組み合わせを同時にマッピングした場合の処理時間の比較")
+    void test003() throws Exception {
+
+        var modelMapper = modelMapperHolder.get(SKIP_NULL_MODEL_MAPPER);
+        var pairs = Variants.SOURCES.size() / 2;
+
+        // 前半の組み合わせは ModelMapper#map、後半の組み合わせは ModelMapperHolder#map (どちらも未作成)
+        for (var holder : Arrays.asList(false, true)) {
+            var offset = holder ? pairs : 0;
+            var threadNumber = new AtomicInteger();
+            var start = System.nanoTime();
+            var latencies = runConcurrently(() -> {
+                var result = new long[pairs];
+                var thread = threadNumber.getAndIncrement() % pairs;
+                for (int i = 0; i < pairs; i++) {
+                    var index = offset + (thread + i) % pairs;
+                    BaseSource source = Variants.SOURCES.get(index).getConstructor().newInstance();
+                    source.setFirstName("firstName_" + index);
+                    var begin = System.nanoTime();
+                    var target = holder
+                            ? modelMapperHolder.map(SKIP_NULL_MODEL_MAPPER, source, Variants.TARGETS.get(index))
+                            : modelMapper.map(source, Variants.TARGETS.get(index));
+                    result[i] = System.nanoTime() - begin;
+                    assertThat(target.getFirstName()).isEqualTo("firstName_" + index);
+                }
+                return result;
+            });
+            var elapsed = System.nanoTime() - start;
+
+            var sorted = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            System.out.printf("%-27s: total %,5d ms, p50 %,8.2f ms, p99 %,8.2f ms, max %,8.2f ms%n",
+                    holder ? "ModelMapperHolder#map()" : "ModelMapper#map()",
+                    elapsed / 1_000_000,
+                    sorted[sorted.length / 2] / 1_000_000.0,
+                    sorted[(int) (sorted.length * 0.99)] / 1_000_000.0,
+                    sorted[sorted.length - 1] / 1_000_000.0);
+        }
+        System.out.println(modelMapperHolder.typeMapCreationStats());
+
+        // 結果(参考値)
+        // ModelMapper#map()          : total   264 ms, p50     0.08 ms, p99   175.39 ms, max   195.78 ms
+        // ModelMapperHolder#map()    : total   129 ms, p50     0.02 ms, p99    13.71 ms, max    44.35 ms
+    }
+
+}
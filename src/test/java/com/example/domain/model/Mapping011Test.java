@@ -0,0 +1,163 @@
+package com.example.domain.model;
+
+import com.example.config.ColumnType;
+import com.example.config.ModelMapperFootprint;
+import com.example.config.ModelMapperHolder;
+import com.example.domain.model.test011.OrderRow;
+import com.example.domain.model.test011.OrderSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.config.ModelMapperConfig.MODEL_MAPPER;
+import static com.example.config.ModelMapperConfig.SKIP_NULL_MODEL_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class Mapping011Test {
+
+    private static final int BENCHMARK_ROWS = Integer.getInteger("columns.benchmark.rows", 1_000);
+
+    private static final List<String> REGIONS = List.of("north", "south", "east", "west");
+
+    private final ModelMapperHolder modelMapperHolder;
+
+    @Autowired
+    public Mapping011Test(ModelMapperHolder modelMapperHolder) {
+        this.modelMapperHolder = modelMapperHolder;
+    }
+
+    private static List<OrderSource> createSources(int size) {
+        var sources = new ArrayList<OrderSource>(size);
+        for (int i = 0; i < size; i++) {
+            var source = new OrderSource();
+            source.setCustomerName("customer_" + (i % 1000));
+            source.setRegion(REGIONS.get(i % REGIONS.size()));
+            source.setQuantity(i % 100);
+            source.setUnitPrice(i % 10 == 0 ? null : 1000L + i);
+            source.setDiscountRate(i % 5 == 0 ? null : (i % 20) / 100.0);
+            source.setShipped(i % 2 == 1);
+            source.setAmount(BigDecimal.valueOf(i % 1000));
+            sources.add(source);
+        }
+        return sources;
+    }
+
+    @Test
+    @DisplayName("列ごとの配列にマッピングする(プリミティブ型・null のビットマップ・文字列の辞書)")
+    void test001() {
+
+        var sources = new ArrayList<OrderSource>(createSources(5));
+        sources.add(null);
+
+        var batch = modelMapperHolder.mapColumns(MODEL_MAPPER, sources, OrderRow.class);
+
+        assertThat(batch.rowCount()).isEqualTo(6);
+        assertThat(batch.schema().columns()).extracting(c -> c.name() + ":" + c.columnType()).containsExactly(
+                "customerName:STRING", "region:STRING", "quantity:INT", "unitPrice:LONG",
+                "discountRate:DOUBLE", "shipped:BOOLEAN", "amount:OBJECT", "note:STRING");
+
+        var quantity = batch.columnIndex("quantity");
+        assertThat(Arrays.copyOf(batch.ints(quantity), 5)).containsExactly(0, 1, 2, 3, 4);
+
+        var unitPrice = batch.columnIndex("unitPrice");
+        assertThat(batch.isNull(unitPrice, 0)).isTrue();
+        assertThat(batch.getLong(unitPrice, 1)).isEqualTo(1001L);
+
+        var discountRate = batch.columnIndex("discountRate");
+        assertThat(batch.isNull(discountRate, 0)).isTrue();
+        assertThat(batch.getDouble(discountRate, 2)).isEqualTo(0.02);
+
+        var shipped = batch.columnIndex("shipped");
+        assertThat(batch.getBoolean(shipped, 0)).isFalse();
+        assertThat(batch.getBoolean(shipped, 1)).isTrue();
+
+        var region = batch.columnIndex("region");
+        assertThat(batch.dictionary(region)).containsExactly("north", "south", "east", "west");
+        assertThat(batch.dictionaryCodes(region)).containsExactly(0, 1, 2, 3, 0, -1);
+        assertThat(batch.getString(region, 4)).isEqualTo("north");
+
+        assertThat(batch.get(batch.columnIndex("amount"), 3)).isEqualTo(BigDecimal.valueOf(3));
+
+        // 対応するソースのプロパティが無い列、null の要素は null
+        var note = batch.columnIndex("note");
+        for (int row = 0; row < batch.rowCount(); row++) {
+            assertThat(batch.isNull(note, row)).isTrue();
+        }
+        for (int column = 0; column < batch.schema().columns().size(); column++) {
+            assertThat(batch.isNull(column, 5)).isTrue();
+        }
+
+        assertThatThrownBy(() -> batch.longs(quantity)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> batch.columnIndex("xxx")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(batch.schema().columns().get(quantity).columnType()).isEqualTo(ColumnType.INT);
+    }
+
+    @Test
+    @DisplayName("mapListと同じ値になる")
+    void test002() {
+
+        var sources = createSources(100);
+
+        for (var key : List.of(MODEL_MAPPER, SKIP_NULL_MODEL_MAPPER)) {
+            var batch = modelMapperHolder.mapColumns(key, sources, OrderRow.class);
+            var rows = modelMapperHolder.mapList(key, sources, OrderRow.class);
+
+            for (int row = 0; row < rows.size(); row++) {
+                var expected = rows.get(row);
+                assertThat(batch.getString(0, row)).isEqualTo(expected.getCustomerName());
+                assertThat(batch.getString(1, row)).isEqualTo(expected.getRegion());
+                assertThat(batch.get(2, row)).isEqualTo(expected.getQuantity());
+                assertThat(batch.get(3, row)).isEqualTo(expected.getUnitPrice());
+                assertThat(batch.get(4, row)).isEqualTo(expected.getDiscountRate());
+                assertThat(batch.get(5, row)).isEqualTo(expected.isShipped());
+                assertThat(batch.get(6, row)).isEqualTo(expected.getAmount());
+                assertThat(batch.get(7, row)).isEqualTo(expected.getNote());
+            }
+        }
+    }
+
+    /**
+     * -Dbenchmark=true で実行する。件数は -Dcolumns.benchmark.rows (既定値 1,000件)
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("列ごとの配列にマッピングした場合のメモリ使用量と処理時間の比較")
+    void test003() {
+
+        var sources = createSources(BENCHMARK_ROWS);
+
+        // ウォームアップ
+        for (int i = 0; i < 5; i++) {
+            modelMapperHolder.mapList(MODEL_MAPPER, sources, OrderRow.class);
+            modelMapperHolder.mapColumns(MODEL_MAPPER, sources, OrderRow.class);
+        }
+
+        var start = System.nanoTime();
+        var rows = modelMapperHolder.mapList(MODEL_MAPPER, sources, OrderRow.class);
+        var listElapsed = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        var batch = modelMapperHolder.mapColumns(MODEL_MAPPER, sources, OrderRow.class);
+        var columnsElapsed = System.nanoTime() - start;
+
+        assertThat(batch.rowCount()).isEqualTo(rows.size());
+        System.out.printf("mapList()   : %,5d ms, %,12d bytes%n",
+                listElapsed / 1_000_000, ModelMapperFootprint.estimateBytes(rows));
+        System.out.printf("mapColumns(): %,5d ms, %,12d bytes%n",
+                columnsElapsed / 1_000_000, ModelMapperFootprint.estimateBytes(batch));
+
+        // 結果(参考値、-Dcolumns.benchmark.rows=1000000)
+        // mapList()   :   242 ms,  188,360,672 bytes
+        // mapColumns():   158 ms,   76,747,064 bytes
+    }
+
+}